@@ -0,0 +1,40 @@
+package com.apk4android.salluu3alayhie.audio;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RawRes;
+
+/**
+ * A way of playing a reminder clip. {@link com.apk4android.salluu3alayhie.utils.ReminderPlayer}
+ * tries its backends in order and uses the first one that accepts the clip.
+ */
+public interface AudioBackend {
+
+    /**
+     * Start playing the clip
+     *
+     * @param onFailed called instead of onComplete when a clip that was accepted turns out not to
+     *                 play after all (e.g. its asynchronous load failed), so the next backend can try
+     * @return false if this backend can't play the clip right now; neither callback is then called
+     */
+    boolean play(@RawRes int resourceId, @NonNull Runnable onComplete, @NonNull Runnable onFailed);
+
+    /**
+     * Pause playback, e.g. on transient audio focus loss
+     */
+    void pause();
+
+    /**
+     * Resume paused playback
+     */
+    void resume();
+
+    /**
+     * Stop playback without notifying completion
+     */
+    void stop();
+
+    /**
+     * Release native resources; the backend may be used again afterwards
+     */
+    void release();
+}
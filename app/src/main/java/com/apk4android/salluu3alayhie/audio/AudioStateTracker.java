@@ -0,0 +1,240 @@
+package com.apk4android.salluu3alayhie.audio;
+
+import android.Manifest;
+import android.app.NotificationManager;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.PackageManager;
+import android.media.AudioManager;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.telephony.PhoneStateListener;
+import android.telephony.TelephonyCallback;
+import android.telephony.TelephonyManager;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+import androidx.core.content.ContextCompat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Process-wide cache of the ringer, Do Not Disturb and call state.
+ * Subscribes once to the system change events and keeps an immutable {@link Snapshot} in a
+ * volatile field, so deciding whether a reminder may make a sound is a plain field read
+ * instead of binder calls on every fire.
+ */
+public final class AudioStateTracker {
+
+    private static final String TAG = "AudioStateTracker";
+
+    private static AudioStateTracker instance;
+
+    /**
+     * Notified on the main thread whenever the snapshot changes
+     */
+    public interface Listener {
+        void onAudioStateChanged(@NonNull Snapshot snapshot);
+    }
+
+    /**
+     * Immutable view of the sound-related device state
+     */
+    public static final class Snapshot {
+        private final int ringerMode;
+        private final boolean doNotDisturb;
+        private final boolean inCall;
+
+        Snapshot(int ringerMode, boolean doNotDisturb, boolean inCall) {
+            this.ringerMode = ringerMode;
+            this.doNotDisturb = doNotDisturb;
+            this.inCall = inCall;
+        }
+
+        public int getRingerMode() {
+            return ringerMode;
+        }
+
+        public boolean isDoNotDisturb() {
+            return doNotDisturb;
+        }
+
+        public boolean isInCall() {
+            return inCall;
+        }
+
+        /**
+         * Ringer silenced or vibrate-only, or Do Not Disturb on
+         */
+        public boolean isSilent() {
+            return ringerMode != AudioManager.RINGER_MODE_NORMAL || doNotDisturb;
+        }
+
+        /**
+         * A reminder must not make a sound right now
+         */
+        public boolean isBusy() {
+            return isSilent() || inCall;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Snapshot{ringerMode=" + ringerMode + ", doNotDisturb=" + doNotDisturb
+                    + ", inCall=" + inCall + "}";
+        }
+    }
+
+    private final Context context;
+    private final AudioManager audioManager;
+    private final NotificationManager notificationManager;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Snapshot snapshot;
+
+    private AudioStateTracker(Context context) {
+        this.context = context.getApplicationContext();
+        this.audioManager = (AudioManager) this.context.getSystemService(Context.AUDIO_SERVICE);
+        this.notificationManager = (NotificationManager) this.context.getSystemService(Context.NOTIFICATION_SERVICE);
+        this.snapshot = new Snapshot(readRingerMode(), readDoNotDisturb(), readInCallFromAudioMode());
+
+        // Phone listeners bind to the looper of the registering thread
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            subscribe();
+        } else {
+            new Handler(Looper.getMainLooper()).post(this::subscribe);
+        }
+    }
+
+    public static synchronized AudioStateTracker getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new AudioStateTracker(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Latest known state; never blocks
+     */
+    @NonNull
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public void addListener(@NonNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Register for ringer, DND and call state changes, once per process
+     */
+    private void subscribe() {
+        IntentFilter filter = new IntentFilter(AudioManager.RINGER_MODE_CHANGED_ACTION);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            filter.addAction(NotificationManager.ACTION_INTERRUPTION_FILTER_CHANGED);
+        }
+        ContextCompat.registerReceiver(context, new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                Snapshot current = snapshot;
+                update(new Snapshot(readRingerMode(), readDoNotDisturb(), current.inCall));
+            }
+        }, filter, ContextCompat.RECEIVER_NOT_EXPORTED);
+
+        subscribeToCallState();
+    }
+
+    /**
+     * Call state via TelephonyCallback on Android 12+, PhoneStateListener below
+     */
+    private void subscribeToCallState() {
+        TelephonyManager telephonyManager = (TelephonyManager) context.getSystemService(Context.TELEPHONY_SERVICE);
+        if (telephonyManager == null) {
+            Log.w(TAG, "TelephonyManager unavailable, relying on audio mode for call state");
+            return;
+        }
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+                if (ContextCompat.checkSelfPermission(context, Manifest.permission.READ_PHONE_STATE)
+                        != PackageManager.PERMISSION_GRANTED) {
+                    Log.w(TAG, "READ_PHONE_STATE not granted, relying on audio mode for call state");
+                    return;
+                }
+                telephonyManager.registerTelephonyCallback(context.getMainExecutor(), new CallStateCallback());
+            } else {
+                telephonyManager.listen(new PhoneStateListener() {
+                    @Override
+                    public void onCallStateChanged(int state, String phoneNumber) {
+                        onCallState(state);
+                    }
+                }, PhoneStateListener.LISTEN_CALL_STATE);
+            }
+        } catch (SecurityException e) {
+            Log.w(TAG, "Cannot listen to call state", e);
+        }
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.S)
+    private class CallStateCallback extends TelephonyCallback implements TelephonyCallback.CallStateListener {
+        @Override
+        public void onCallStateChanged(int state) {
+            onCallState(state);
+        }
+    }
+
+    private void onCallState(int callState) {
+        boolean inCall = callState == TelephonyManager.CALL_STATE_OFFHOOK
+                || callState == TelephonyManager.CALL_STATE_RINGING;
+        Snapshot current = snapshot;
+        update(new Snapshot(current.ringerMode, current.doNotDisturb, inCall));
+    }
+
+    /**
+     * Publish a new snapshot and notify listeners if anything changed
+     */
+    private void update(Snapshot next) {
+        Snapshot previous = snapshot;
+        if (previous.ringerMode == next.ringerMode && previous.doNotDisturb == next.doNotDisturb
+                && previous.inCall == next.inCall) {
+            return;
+        }
+        snapshot = next;
+        Log.d(TAG, "Audio state changed: " + next);
+        for (Listener listener : listeners) {
+            listener.onAudioStateChanged(next);
+        }
+    }
+
+    private int readRingerMode() {
+        return audioManager != null ? audioManager.getRingerMode() : AudioManager.RINGER_MODE_NORMAL;
+    }
+
+    private boolean readDoNotDisturb() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M || notificationManager == null) {
+            return false;
+        }
+        int filter = notificationManager.getCurrentInterruptionFilter();
+        return filter != NotificationManager.INTERRUPTION_FILTER_ALL
+                && filter != NotificationManager.INTERRUPTION_FILTER_UNKNOWN;
+    }
+
+    /**
+     * Permission-free seed for the call state until the first telephony callback arrives
+     */
+    private boolean readInCallFromAudioMode() {
+        if (audioManager == null) {
+            return false;
+        }
+        int mode = audioManager.getMode();
+        return mode == AudioManager.MODE_IN_CALL || mode == AudioManager.MODE_RINGTONE
+                || mode == AudioManager.MODE_IN_COMMUNICATION;
+    }
+}
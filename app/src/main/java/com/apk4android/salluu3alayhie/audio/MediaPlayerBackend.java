@@ -0,0 +1,152 @@
+package com.apk4android.salluu3alayhie.audio;
+
+import android.content.Context;
+import android.media.AudioManager;
+import android.media.MediaPlayer;
+import android.util.Log;
+import android.util.SparseArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RawRes;
+
+/**
+ * Fallback backend that plays the clip with MediaPlayer.
+ * Keeps one prepared player per clip so closely spaced reminders replay with seekTo(0) + start()
+ * instead of building a new native player; {@link #release()} frees the whole pool.
+ */
+public class MediaPlayerBackend implements AudioBackend {
+
+    private static final String TAG = "MediaPlayerBackend";
+
+    private final Context context;
+    private final SparseArray<MediaPlayer> players = new SparseArray<>();
+    private MediaPlayer activePlayer;
+    private boolean paused;
+    // Bumped on every play and stop, so completions of an earlier playback are ignored
+    private int generation;
+
+    public MediaPlayerBackend(@NonNull Context context) {
+        this.context = context;
+    }
+
+    @Override
+    public boolean play(@RawRes int resourceId, @NonNull Runnable onComplete, @NonNull Runnable onFailed) {
+        stop();
+
+        MediaPlayer mediaPlayer = obtainPlayer(resourceId);
+        if (mediaPlayer == null) {
+            return false;
+        }
+
+        final int playGeneration = ++generation;
+        mediaPlayer.setOnCompletionListener(mp -> {
+            if (!isCurrent(mp, playGeneration)) {
+                return;
+            }
+            Log.d(TAG, "Playback completed");
+            activePlayer = null;
+            onComplete.run();
+        });
+        mediaPlayer.setOnErrorListener((mp, what, extra) -> {
+            Log.e(TAG, "MediaPlayer error: what=" + what + ", extra=" + extra);
+            // The error state outlives the playback that hit it: it breaks whatever this player plays now
+            boolean current = mp == activePlayer;
+            // A player in the error state can't be reused
+            discardPlayer(resourceId, mp);
+            if (current) {
+                onFailed.run();
+            }
+            return true;
+        });
+
+        try {
+            mediaPlayer.seekTo(0);
+            mediaPlayer.start();
+        } catch (IllegalStateException e) {
+            Log.e(TAG, "Pooled MediaPlayer unusable, dropping it", e);
+            discardPlayer(resourceId, mediaPlayer);
+            return false;
+        }
+        activePlayer = mediaPlayer;
+        return true;
+    }
+
+    /**
+     * Whether a completion comes from the playback that is still running
+     */
+    private boolean isCurrent(MediaPlayer mediaPlayer, int playGeneration) {
+        return mediaPlayer == activePlayer && playGeneration == generation;
+    }
+
+    /**
+     * Pooled prepared player for the clip, created on first use
+     */
+    private MediaPlayer obtainPlayer(int resourceId) {
+        MediaPlayer mediaPlayer = players.get(resourceId);
+        if (mediaPlayer != null) {
+            return mediaPlayer;
+        }
+
+        // MediaPlayer.create returns an already prepared player
+        mediaPlayer = MediaPlayer.create(context, resourceId);
+        if (mediaPlayer == null) {
+            Log.e(TAG, "Failed to create MediaPlayer");
+            return null;
+        }
+        // Set audio stream to music to avoid interference with notifications
+        mediaPlayer.setAudioStreamType(AudioManager.STREAM_MUSIC);
+        players.put(resourceId, mediaPlayer);
+        return mediaPlayer;
+    }
+
+    private void discardPlayer(int resourceId, MediaPlayer mediaPlayer) {
+        players.remove(resourceId);
+        if (activePlayer == mediaPlayer) {
+            activePlayer = null;
+        }
+        mediaPlayer.release();
+    }
+
+    @Override
+    public void pause() {
+        if (activePlayer != null && activePlayer.isPlaying()) {
+            activePlayer.pause();
+            paused = true;
+        }
+    }
+
+    @Override
+    public void resume() {
+        if (activePlayer != null && paused) {
+            paused = false;
+            activePlayer.start();
+        }
+    }
+
+    @Override
+    public void stop() {
+        generation++;
+        paused = false;
+        if (activePlayer != null) {
+            activePlayer.setOnCompletionListener(null);
+            if (activePlayer.isPlaying()) {
+                // pause() keeps the player prepared, unlike stop()
+                activePlayer.pause();
+            }
+            activePlayer = null;
+        }
+    }
+
+    @Override
+    public void release() {
+        stop();
+        for (int i = 0; i < players.size(); i++) {
+            try {
+                players.valueAt(i).release();
+            } catch (Exception e) {
+                Log.e(TAG, "Error releasing MediaPlayer", e);
+            }
+        }
+        players.clear();
+    }
+}
@@ -0,0 +1,313 @@
+package com.apk4android.salluu3alayhie.audio;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.MediaCodec;
+import android.media.MediaExtractor;
+import android.media.MediaFormat;
+import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseLongArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RawRes;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Process-wide cache of reminder clips decoded to PCM.
+ * Each clip is decoded once with MediaExtractor/MediaCodec on a background thread and stored
+ * in app-private no-backup storage; later reminders only read the file (or hit memory).
+ */
+public final class PcmCache {
+
+    private static final String TAG = "PcmCache";
+    private static final String CACHE_DIR = "pcm";
+    private static final int FILE_MAGIC = 0x50434D31; // "PCM1"
+    private static final long CODEC_TIMEOUT_US = 10000;
+
+    private static PcmCache instance;
+
+    private final Context context;
+    private final File cacheDir;
+    private final SparseArray<PcmClip> clips = new SparseArray<>();
+    private final SparseLongArray durations = new SparseLongArray();
+    private final Set<Integer> pendingDecodes = new HashSet<>();
+    private final ExecutorService decodeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pcm-decoder");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private PcmCache(Context context) {
+        this.context = context.getApplicationContext();
+        this.cacheDir = new File(this.context.getNoBackupFilesDir(), CACHE_DIR);
+    }
+
+    public static synchronized PcmCache getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new PcmCache(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Decoded clip if it is in memory or on disk; otherwise schedules a background decode and returns null
+     */
+    @Nullable
+    public synchronized PcmClip getIfReady(@RawRes int resourceId) {
+        PcmClip clip = clips.get(resourceId);
+        if (clip != null) {
+            return clip;
+        }
+
+        File file = cacheFile(resourceId);
+        if (file != null && file.exists()) {
+            try {
+                clip = readClip(file);
+                clips.put(resourceId, clip);
+                return clip;
+            } catch (IOException e) {
+                Log.w(TAG, "Corrupt PCM cache file, decoding again: " + file, e);
+                file.delete();
+            }
+        }
+
+        prefetch(resourceId);
+        return null;
+    }
+
+    /**
+     * Duration of the clip in milliseconds, read from the cache header without loading the PCM.
+     * Returns -1 (and schedules a background decode) when the clip is not cached yet.
+     */
+    public synchronized long getDurationMillis(@RawRes int resourceId) {
+        long duration = durations.get(resourceId, -1);
+        if (duration >= 0) {
+            return duration;
+        }
+        PcmClip clip = clips.get(resourceId);
+        if (clip != null) {
+            duration = clip.getDurationMillis();
+        } else {
+            File file = cacheFile(resourceId);
+            if (file == null || !file.exists()) {
+                prefetch(resourceId);
+                return -1;
+            }
+            try {
+                duration = readDurationMillis(file);
+            } catch (IOException e) {
+                Log.w(TAG, "Cannot read PCM cache header: " + file, e);
+                return -1;
+            }
+        }
+        durations.put(resourceId, duration);
+        return duration;
+    }
+
+    /**
+     * Decode the clip into the cache in the background, if not already cached
+     */
+    public synchronized void prefetch(@RawRes int resourceId) {
+        if (clips.get(resourceId) != null || !pendingDecodes.add(resourceId)) {
+            return;
+        }
+        decodeExecutor.execute(() -> decodeToCache(resourceId));
+    }
+
+    /**
+     * Background task: decode the resource and persist it
+     */
+    private void decodeToCache(int resourceId) {
+        try {
+            File file = cacheFile(resourceId);
+            if (file == null) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            PcmClip clip = decode(resourceId);
+            writeClip(clip, file);
+            synchronized (this) {
+                clips.put(resourceId, clip);
+            }
+            Log.d(TAG, "Decoded " + file.getName() + " (" + clip.data.length + " bytes) in "
+                    + (System.currentTimeMillis() - start) + "ms");
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Failed to decode clip " + resourceId, e);
+        } finally {
+            synchronized (this) {
+                pendingDecodes.remove(resourceId);
+            }
+        }
+    }
+
+    /**
+     * Cache file name, keyed by resource name and size so an updated clip is decoded again
+     */
+    @Nullable
+    private File cacheFile(int resourceId) {
+        try (AssetFileDescriptor afd = context.getResources().openRawResourceFd(resourceId)) {
+            String name = context.getResources().getResourceEntryName(resourceId);
+            return new File(cacheDir, name + "_" + afd.getLength() + ".pcm");
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Cannot open raw resource " + resourceId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Decode a raw audio resource to 16-bit PCM
+     */
+    private PcmClip decode(int resourceId) throws IOException {
+        MediaExtractor extractor = new MediaExtractor();
+        MediaCodec codec = null;
+        try {
+            try (AssetFileDescriptor afd = context.getResources().openRawResourceFd(resourceId)) {
+                extractor.setDataSource(afd.getFileDescriptor(), afd.getStartOffset(), afd.getLength());
+            }
+
+            MediaFormat format = selectAudioTrack(extractor);
+            if (format == null) {
+                throw new IOException("No audio track in resource " + resourceId);
+            }
+            int sampleRate = format.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+            int channelCount = format.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+
+            codec = MediaCodec.createDecoderByType(format.getString(MediaFormat.KEY_MIME));
+            codec.configure(format, null, null, 0);
+            codec.start();
+
+            ByteArrayOutputStream pcm = new ByteArrayOutputStream();
+            MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+            byte[] chunk = new byte[0];
+            boolean inputDone = false;
+            boolean outputDone = false;
+
+            while (!outputDone) {
+                if (!inputDone) {
+                    int inputIndex = codec.dequeueInputBuffer(CODEC_TIMEOUT_US);
+                    if (inputIndex >= 0) {
+                        ByteBuffer inputBuffer = codec.getInputBuffer(inputIndex);
+                        int size = inputBuffer == null ? -1 : extractor.readSampleData(inputBuffer, 0);
+                        if (size < 0) {
+                            codec.queueInputBuffer(inputIndex, 0, 0, 0, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+                            inputDone = true;
+                        } else {
+                            codec.queueInputBuffer(inputIndex, 0, size, extractor.getSampleTime(), 0);
+                            extractor.advance();
+                        }
+                    }
+                }
+
+                int outputIndex = codec.dequeueOutputBuffer(info, CODEC_TIMEOUT_US);
+                if (outputIndex >= 0) {
+                    ByteBuffer outputBuffer = codec.getOutputBuffer(outputIndex);
+                    if (outputBuffer != null && info.size > 0) {
+                        if (chunk.length < info.size) {
+                            chunk = new byte[info.size];
+                        }
+                        outputBuffer.position(info.offset);
+                        outputBuffer.get(chunk, 0, info.size);
+                        pcm.write(chunk, 0, info.size);
+                    }
+                    codec.releaseOutputBuffer(outputIndex, false);
+                    outputDone = (info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0;
+                } else if (outputIndex == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+                    MediaFormat outputFormat = codec.getOutputFormat();
+                    sampleRate = outputFormat.getInteger(MediaFormat.KEY_SAMPLE_RATE);
+                    channelCount = outputFormat.getInteger(MediaFormat.KEY_CHANNEL_COUNT);
+                }
+            }
+
+            return new PcmClip(sampleRate, channelCount, pcm.toByteArray());
+        } finally {
+            if (codec != null) {
+                codec.release();
+            }
+            extractor.release();
+        }
+    }
+
+    /**
+     * Select the first audio track of the extractor
+     */
+    @Nullable
+    private static MediaFormat selectAudioTrack(MediaExtractor extractor) {
+        for (int i = 0; i < extractor.getTrackCount(); i++) {
+            MediaFormat format = extractor.getTrackFormat(i);
+            String mime = format.getString(MediaFormat.KEY_MIME);
+            if (mime != null && mime.startsWith("audio/")) {
+                extractor.selectTrack(i);
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Persist a clip atomically (write to a temp file, then rename)
+     */
+    private void writeClip(PcmClip clip, File file) throws IOException {
+        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
+            throw new IOException("Cannot create " + cacheDir);
+        }
+        File tempFile = new File(cacheDir, file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(clip.sampleRate);
+            out.writeInt(clip.channelCount);
+            out.writeInt(clip.data.length);
+            out.write(clip.data);
+        }
+        if (!tempFile.renameTo(file)) {
+            tempFile.delete();
+            throw new IOException("Cannot rename " + tempFile);
+        }
+    }
+
+    /**
+     * Duration from the header of a file written by {@link #writeClip}
+     */
+    private static long readDurationMillis(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Bad magic");
+            }
+            int sampleRate = in.readInt();
+            int channelCount = in.readInt();
+            int dataLength = in.readInt();
+            return dataLength / (2L * channelCount) * 1000L / sampleRate;
+        }
+    }
+
+    /**
+     * Load a clip written by {@link #writeClip}
+     */
+    private static PcmClip readClip(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Bad magic");
+            }
+            int sampleRate = in.readInt();
+            int channelCount = in.readInt();
+            byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            return new PcmClip(sampleRate, channelCount, data);
+        }
+    }
+}
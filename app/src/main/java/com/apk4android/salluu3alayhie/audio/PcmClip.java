@@ -0,0 +1,31 @@
+package com.apk4android.salluu3alayhie.audio;
+
+/**
+ * A reminder clip decoded to 16-bit PCM, ready for a static AudioTrack.
+ */
+public final class PcmClip {
+
+    public final int sampleRate;
+    public final int channelCount;
+    public final byte[] data;
+
+    public PcmClip(int sampleRate, int channelCount, byte[] data) {
+        this.sampleRate = sampleRate;
+        this.channelCount = channelCount;
+        this.data = data;
+    }
+
+    /**
+     * Number of audio frames (one sample per channel)
+     */
+    public int getFrameCount() {
+        return data.length / (2 * channelCount);
+    }
+
+    /**
+     * Playback duration in milliseconds
+     */
+    public long getDurationMillis() {
+        return getFrameCount() * 1000L / sampleRate;
+    }
+}
@@ -0,0 +1,181 @@
+package com.apk4android.salluu3alayhie.audio;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.AudioFormat;
+import android.media.AudioManager;
+import android.media.AudioTrack;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RawRes;
+
+/**
+ * Plays pre-decoded PCM from {@link PcmCache} through a static-mode AudioTrack.
+ * No codec or extractor is touched on the reminder path, so alarm-to-sound latency is a few ms.
+ * Declines clips that are not cached yet (the cache then decodes them in the background).
+ */
+public class PcmTrackBackend implements AudioBackend {
+
+    private static final String TAG = "PcmTrackBackend";
+    private static final long COMPLETION_MARGIN_MS = 500;
+
+    private final PcmCache pcmCache;
+    private final Handler handler;
+    private AudioTrack audioTrack;
+    private int loadedResourceId;
+    private Runnable pendingCompletion;
+    private long remainingMillis;
+    private long playStartedAt;
+
+    public PcmTrackBackend(@NonNull Context context) {
+        this.pcmCache = PcmCache.getInstance(context);
+        this.handler = new Handler(Looper.myLooper() != null ? Looper.myLooper() : Looper.getMainLooper());
+    }
+
+    @Override
+    public boolean play(@RawRes int resourceId, @NonNull Runnable onComplete, @NonNull Runnable onFailed) {
+        PcmClip clip = pcmCache.getIfReady(resourceId);
+        if (clip == null) {
+            Log.d(TAG, "Clip not decoded yet, declining");
+            return false;
+        }
+
+        try {
+            if (!prepareTrack(resourceId, clip)) {
+                return false;
+            }
+            armCompletion(clip, onComplete);
+            audioTrack.play();
+            return true;
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            Log.e(TAG, "AudioTrack playback failed", e);
+            release();
+            return false;
+        }
+    }
+
+    /**
+     * Reuse the loaded static track for the same clip, otherwise build a new one
+     */
+    private boolean prepareTrack(int resourceId, PcmClip clip) {
+        if (audioTrack != null && loadedResourceId == resourceId) {
+            audioTrack.stop();
+            return audioTrack.reloadStaticData() == AudioTrack.SUCCESS;
+        }
+
+        release();
+        int channelMask = clip.channelCount == 1 ? AudioFormat.CHANNEL_OUT_MONO : AudioFormat.CHANNEL_OUT_STEREO;
+        AudioTrack track = new AudioTrack(
+                new AudioAttributes.Builder()
+                        .setUsage(AudioAttributes.USAGE_MEDIA)
+                        .setContentType(AudioAttributes.CONTENT_TYPE_SPEECH)
+                        .build(),
+                new AudioFormat.Builder()
+                        .setSampleRate(clip.sampleRate)
+                        .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+                        .setChannelMask(channelMask)
+                        .build(),
+                clip.data.length,
+                AudioTrack.MODE_STATIC,
+                AudioManager.AUDIO_SESSION_ID_GENERATE);
+
+        if (track.getState() == AudioTrack.STATE_UNINITIALIZED
+                || track.write(clip.data, 0, clip.data.length) != clip.data.length) {
+            Log.w(TAG, "Static AudioTrack could not be created for " + clip.data.length + " bytes");
+            track.release();
+            return false;
+        }
+
+        audioTrack = track;
+        loadedResourceId = resourceId;
+        return true;
+    }
+
+    /**
+     * Complete on the end marker, with a timer as a safety net for devices that miss the marker
+     */
+    private void armCompletion(PcmClip clip, Runnable onComplete) {
+        cancelCompletion();
+        Runnable completion = new Runnable() {
+            @Override
+            public void run() {
+                if (pendingCompletion == this) {
+                    pendingCompletion = null;
+                    handler.removeCallbacks(this);
+                    onComplete.run();
+                }
+            }
+        };
+        pendingCompletion = completion;
+
+        audioTrack.setNotificationMarkerPosition(clip.getFrameCount());
+        audioTrack.setPlaybackPositionUpdateListener(new AudioTrack.OnPlaybackPositionUpdateListener() {
+            @Override
+            public void onMarkerReached(AudioTrack track) {
+                completion.run();
+            }
+
+            @Override
+            public void onPeriodicNotification(AudioTrack track) {
+            }
+        }, handler);
+        remainingMillis = clip.getDurationMillis() + COMPLETION_MARGIN_MS;
+        scheduleSafetyTimer();
+    }
+
+    private void scheduleSafetyTimer() {
+        if (pendingCompletion != null) {
+            playStartedAt = SystemClock.uptimeMillis();
+            handler.postDelayed(pendingCompletion, remainingMillis);
+        }
+    }
+
+    private void cancelCompletion() {
+        if (pendingCompletion != null) {
+            handler.removeCallbacks(pendingCompletion);
+            pendingCompletion = null;
+        }
+    }
+
+    @Override
+    public void pause() {
+        if (audioTrack != null && audioTrack.getPlayState() == AudioTrack.PLAYSTATE_PLAYING) {
+            audioTrack.pause();
+            // The safety timer must not run out while the clip is held
+            if (pendingCompletion != null) {
+                handler.removeCallbacks(pendingCompletion);
+                remainingMillis = Math.max(0, remainingMillis - (SystemClock.uptimeMillis() - playStartedAt));
+            }
+        }
+    }
+
+    @Override
+    public void resume() {
+        if (audioTrack != null && audioTrack.getPlayState() == AudioTrack.PLAYSTATE_PAUSED) {
+            audioTrack.play();
+            scheduleSafetyTimer();
+        }
+    }
+
+    @Override
+    public void stop() {
+        cancelCompletion();
+        if (audioTrack != null && audioTrack.getPlayState() != AudioTrack.PLAYSTATE_STOPPED) {
+            audioTrack.stop();
+        }
+    }
+
+    @Override
+    public void release() {
+        cancelCompletion();
+        if (audioTrack != null) {
+            audioTrack.release();
+            audioTrack = null;
+            loadedResourceId = 0;
+        }
+    }
+}
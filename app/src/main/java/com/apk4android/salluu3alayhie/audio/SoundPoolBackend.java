@@ -0,0 +1,190 @@
+package com.apk4android.salluu3alayhie.audio;
+
+import android.content.Context;
+import android.media.AudioAttributes;
+import android.media.SoundPool;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.SparseIntArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RawRes;
+
+/**
+ * Low-latency backend for short clips such as the voice reminder.
+ * Clips are loaded into a process-wide SoundPool once and fired with a single play() call;
+ * completion is timed from the clip duration known to {@link PcmCache}.
+ * Declines clips longer than {@link #MAX_CLIP_DURATION_MS} or of unknown length.
+ */
+public class SoundPoolBackend implements AudioBackend {
+
+    private static final String TAG = "SoundPoolBackend";
+
+    /**
+     * SoundPool keeps decoded audio in a ~1MB buffer: about 5 seconds of 44.1kHz stereo
+     */
+    public static final long MAX_CLIP_DURATION_MS = 5000;
+
+    private static SoundPool soundPool;
+    private static final SparseIntArray soundIds = new SparseIntArray();
+    private static final SparseIntArray loadedSoundIds = new SparseIntArray();
+
+    private final Context context;
+    private final PcmCache pcmCache;
+    private final Handler handler;
+    private int streamId;
+    private int pendingSoundId;
+    private Runnable pendingCompletion;
+    private long remainingMillis;
+    private long playStartedAt;
+
+    public SoundPoolBackend(@NonNull Context context) {
+        this.context = context.getApplicationContext();
+        this.pcmCache = PcmCache.getInstance(context);
+        this.handler = new Handler(Looper.myLooper() != null ? Looper.myLooper() : Looper.getMainLooper());
+    }
+
+    /**
+     * Process-wide pool, created on first use
+     */
+    private static synchronized SoundPool getSoundPool() {
+        if (soundPool == null) {
+            soundPool = new SoundPool.Builder()
+                    .setMaxStreams(1)
+                    .setAudioAttributes(new AudioAttributes.Builder()
+                            .setUsage(AudioAttributes.USAGE_MEDIA)
+                            .setContentType(AudioAttributes.CONTENT_TYPE_SPEECH)
+                            .build())
+                    .build();
+        }
+        return soundPool;
+    }
+
+    @Override
+    public boolean play(@RawRes int resourceId, @NonNull Runnable onComplete, @NonNull Runnable onFailed) {
+        long duration = pcmCache.getDurationMillis(resourceId);
+        if (duration < 0 || duration > MAX_CLIP_DURATION_MS) {
+            return false;
+        }
+
+        stop();
+        SoundPool pool = getSoundPool();
+        int soundId;
+        synchronized (SoundPoolBackend.class) {
+            soundId = soundIds.get(resourceId);
+            if (soundId == 0) {
+                soundId = pool.load(context, resourceId, 1);
+                soundIds.put(resourceId, soundId);
+            }
+        }
+
+        Runnable completion = new Runnable() {
+            @Override
+            public void run() {
+                if (pendingCompletion == this) {
+                    pendingCompletion = null;
+                    streamId = 0;
+                    onComplete.run();
+                }
+            }
+        };
+        pendingCompletion = completion;
+        remainingMillis = duration;
+
+        if (loadedSoundIds.get(soundId) != 0) {
+            return startStream(soundId);
+        }
+
+        // First use in this process: play as soon as the pool has decoded the clip
+        pendingSoundId = soundId;
+        pool.setOnLoadCompleteListener((loadedPool, loadedId, status) -> handler.post(() -> {
+            if (status == 0) {
+                loadedSoundIds.put(loadedId, 1);
+            } else {
+                // Otherwise every later play would wait for a load that never completes
+                forgetSound(loadedId);
+            }
+            if (loadedId != pendingSoundId) {
+                return;
+            }
+            pendingSoundId = 0;
+            if (status != 0 || !startStream(loadedId)) {
+                Log.e(TAG, "SoundPool could not play clip, load status: " + status);
+                pendingCompletion = null;
+                onFailed.run();
+            }
+        }));
+        return true;
+    }
+
+    /**
+     * Drop a sound whose load failed, so the next play loads it again
+     */
+    private static synchronized void forgetSound(int soundId) {
+        int index = soundIds.indexOfValue(soundId);
+        if (index >= 0) {
+            soundIds.removeAt(index);
+        }
+        getSoundPool().unload(soundId);
+    }
+
+    /**
+     * Fire the loaded sound and time its completion
+     */
+    private boolean startStream(int soundId) {
+        streamId = getSoundPool().play(soundId, 1f, 1f, 1, 0, 1f);
+        if (streamId == 0) {
+            pendingCompletion = null;
+            return false;
+        }
+        scheduleCompletion();
+        return true;
+    }
+
+    private void scheduleCompletion() {
+        if (pendingCompletion != null) {
+            playStartedAt = SystemClock.uptimeMillis();
+            handler.postDelayed(pendingCompletion, remainingMillis);
+        }
+    }
+
+    @Override
+    public void pause() {
+        if (streamId != 0 && pendingCompletion != null) {
+            getSoundPool().pause(streamId);
+            handler.removeCallbacks(pendingCompletion);
+            remainingMillis = Math.max(0, remainingMillis - (SystemClock.uptimeMillis() - playStartedAt));
+        }
+    }
+
+    @Override
+    public void resume() {
+        if (streamId != 0 && pendingCompletion != null) {
+            getSoundPool().resume(streamId);
+            scheduleCompletion();
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (pendingCompletion != null) {
+            handler.removeCallbacks(pendingCompletion);
+            pendingCompletion = null;
+        }
+        pendingSoundId = 0;
+        if (streamId != 0) {
+            getSoundPool().stop(streamId);
+            streamId = 0;
+        }
+    }
+
+    /**
+     * Stops playback only: the pool and its loaded clips live for the whole process
+     */
+    @Override
+    public void release() {
+        stop();
+    }
+}
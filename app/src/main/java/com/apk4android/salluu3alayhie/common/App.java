@@ -1,13 +1,16 @@
 package com.apk4android.salluu3alayhie.common;
 
+import android.app.Activity;
 import android.app.Application;
 import android.content.Context;
+import android.os.Bundle;
+import android.util.Log;
 
-import com.apk4android.salluu3alayhie.R;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
-import io.github.inflationx.calligraphy3.CalligraphyConfig;
-import io.github.inflationx.calligraphy3.CalligraphyInterceptor;
-import io.github.inflationx.viewpump.ViewPump;
+import com.apk4android.salluu3alayhie.settings.ReminderSettingsRepository;
+import com.google.firebase.FirebaseApp;
 
 // we have extended TelrApplication because extending android Application class is causing
 // manifest merging failure
@@ -35,18 +38,56 @@ public class App extends Application {
     public void onCreate() {
         super.onCreate();
         app = this;
-        // fonts
-        initAppFonts();
+        // Load the settings on the reminder worker, before the first activity or alarm needs them
+        ReminderWorker.post(() -> ReminderSettingsRepository.getInstance(this));
+        initFirebaseWithFirstActivity();
     }
 
+    /**
+     * Firebase auto-init is disabled in the manifest so alarm-only process starts skip
+     * Crashlytics/Analytics entirely; a UI process initialises it in the background as soon
+     * as its first activity is created
+     */
+    private void initFirebaseWithFirstActivity() {
+        registerActivityLifecycleCallbacks(new ActivityLifecycleCallbacks() {
+            @Override
+            public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+                unregisterActivityLifecycleCallbacks(this);
+                // One-shot worker: nothing else needs to stay alive for this
+                new Thread(() -> {
+                    try {
+                        FirebaseApp.initializeApp(App.this);
+                        Log.d(TAG, "Firebase initialised");
+                    } catch (RuntimeException e) {
+                        Log.e(TAG, "Firebase initialisation failed", e);
+                    }
+                }, "firebase-init").start();
+            }
 
-    private void initAppFonts() {
-        ViewPump.init(ViewPump.builder()
-                .addInterceptor(new CalligraphyInterceptor(
-                        new CalligraphyConfig.Builder()
-                                .setDefaultFontPath("fonts/droid.ttf")
-                                .setFontAttrId(R.attr.fontPath)
-                                .build())).build());
+            @Override
+            public void onActivityStarted(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivityResumed(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivityPaused(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivityStopped(@NonNull Activity activity) {
+            }
+
+            @Override
+            public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+            }
+
+            @Override
+            public void onActivityDestroyed(@NonNull Activity activity) {
+            }
+        });
     }
 
 }
@@ -1,11 +1,7 @@
 package com.apk4android.salluu3alayhie.common;
 
-import android.content.Context;
-
 import androidx.appcompat.app.AppCompatActivity;
 
-import io.github.inflationx.viewpump.ViewPumpContextWrapper;
-
 public class BaseActivity extends AppCompatActivity {
 
     public void initViews() {
@@ -16,9 +12,4 @@ public class BaseActivity extends AppCompatActivity {
 
     }
 
-    @Override
-    protected void attachBaseContext(Context newBase) {
-        super.attachBaseContext(ViewPumpContextWrapper.wrap(newBase));
-    }
-
 }
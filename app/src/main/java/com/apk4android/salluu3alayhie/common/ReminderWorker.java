@@ -0,0 +1,71 @@
+package com.apk4android.salluu3alayhie.common;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The single background looper behind the reminder pipeline.
+ * Service commands, alarm scheduling, settings persistence and all {@link
+ * com.apk4android.salluu3alayhie.utils.ReminderPlayer} control run here, in order, so none of
+ * it competes with the UI; MediaPlayer and SoundPool callbacks land here too because their
+ * players are created on this thread. Only UI work (overlay, toasts) is posted back to main.
+ */
+public final class ReminderWorker {
+
+    private static final String THREAD_NAME = "reminder-worker";
+
+    private static HandlerThread thread;
+    private static Handler handler;
+    private static Handler mainHandler;
+
+    private ReminderWorker() {
+    }
+
+    /**
+     * Worker handler, started on first use and kept for the life of the process
+     */
+    @NonNull
+    public static synchronized Handler getHandler() {
+        if (handler == null) {
+            thread = new HandlerThread(THREAD_NAME);
+            thread.start();
+            handler = new Handler(thread.getLooper());
+        }
+        return handler;
+    }
+
+    @NonNull
+    public static Looper getLooper() {
+        return getHandler().getLooper();
+    }
+
+    /**
+     * Run on the worker, after anything already queued
+     */
+    public static void post(@NonNull Runnable task) {
+        getHandler().post(task);
+    }
+
+    /**
+     * Run on the main thread, right away if already there
+     */
+    public static void runOnMain(@NonNull Runnable task) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            task.run();
+            return;
+        }
+        synchronized (ReminderWorker.class) {
+            if (mainHandler == null) {
+                mainHandler = new Handler(Looper.getMainLooper());
+            }
+        }
+        mainHandler.post(task);
+    }
+
+    public static boolean isWorkerThread() {
+        return Looper.myLooper() == getLooper();
+    }
+}
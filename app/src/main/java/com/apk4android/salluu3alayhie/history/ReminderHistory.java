@@ -0,0 +1,58 @@
+package com.apk4android.salluu3alayhie.history;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.apk4android.salluu3alayhie.stats.ReminderStats;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Process-wide access to the reminder history log in app-private no-backup storage.
+ * The log is mapped once per process; recording a reminder is a few absolute puts.
+ */
+public final class ReminderHistory {
+
+    private static final String TAG = "ReminderHistory";
+    private static final String FILE_NAME = "reminder_history.bin";
+    private static final int CAPACITY = 8192; // about 4 weeks of 5 minute reminders, 192KB
+
+    private static ReminderHistoryLog log;
+    private static boolean openFailed;
+
+    private ReminderHistory() {
+    }
+
+    /**
+     * Append the outcome of one reminder and count it in the daily stats. Reminder worker thread.
+     */
+    public static void record(@NonNull Context context, long scheduledMillis, long actualMillis,
+                              int outcome, int latencyMillis) {
+        ReminderHistoryLog historyLog = getLog(context);
+        if (historyLog != null) {
+            historyLog.append(scheduledMillis, actualMillis, outcome, latencyMillis);
+        }
+        ReminderStats.record(context, scheduledMillis, actualMillis, outcome);
+    }
+
+    /**
+     * Shared log, opened on first use; null if the file cannot be mapped
+     */
+    @Nullable
+    public static synchronized ReminderHistoryLog getLog(@NonNull Context context) {
+        if (log == null && !openFailed) {
+            File file = new File(context.getApplicationContext().getNoBackupFilesDir(), FILE_NAME);
+            try {
+                log = ReminderHistoryLog.open(file, CAPACITY);
+            } catch (IOException e) {
+                Log.e(TAG, "Cannot open reminder history", e);
+                openFailed = true;
+            }
+        }
+        return log;
+    }
+}
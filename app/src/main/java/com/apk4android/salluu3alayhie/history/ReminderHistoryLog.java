@@ -0,0 +1,165 @@
+package com.apk4android.salluu3alayhie.history;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Append-only ring buffer of reminder outcomes, stored in a memory-mapped file.
+ * Every record has a fixed size and is written with absolute puts into the mapping, so an
+ * append allocates nothing and never forces the file to disk; the kernel writes the dirty page
+ * back on its own schedule, and the data survives a process kill.
+ *
+ * Layout: a 32 byte header (magic, version, capacity, total records written) followed by
+ * {@code capacity} records of scheduled time, actual fire time, outcome and audio latency.
+ */
+public final class ReminderHistoryLog implements Closeable {
+
+    public static final int OUTCOME_PLAYED = 1;        // audio played
+    public static final int OUTCOME_VISUAL = 2;        // silent or DND mode, shown visually
+    public static final int OUTCOME_SKIPPED_CALL = 3;  // in a call, shown visually and deferred
+    public static final int OUTCOME_FAILED = 4;        // no audio backend could play
+    public static final int OUTCOME_REPLAYED = 5;      // deferred reminder played after a call or silent mode
+
+    /**
+     * Latency value for records where no audio started
+     */
+    public static final int NO_LATENCY = -1;
+
+    private static final int MAGIC = 0x52484C31; // "RHL1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 24;
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_CAPACITY = 8;
+    private static final int OFFSET_WRITE_COUNT = 16;
+
+    /**
+     * Receives records from oldest to newest
+     */
+    public interface Visitor {
+        void visit(long scheduledMillis, long actualMillis, int outcome, int latencyMillis);
+    }
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private long writeCount;
+
+    private ReminderHistoryLog(RandomAccessFile file, MappedByteBuffer buffer, int capacity, long writeCount) {
+        this.file = file;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.writeCount = writeCount;
+    }
+
+    /**
+     * Open the log, creating (or resetting an unreadable) file with the given capacity.
+     * An existing valid log keeps its own capacity.
+     */
+    public static ReminderHistoryLog open(File path, int capacity) throws IOException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        RandomAccessFile file = new RandomAccessFile(path, "rw");
+        try {
+            int existingCapacity = readValidCapacity(file);
+            int actualCapacity = existingCapacity > 0 ? existingCapacity : capacity;
+            long size = HEADER_SIZE + (long) actualCapacity * RECORD_SIZE;
+            file.setLength(size);
+
+            MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            long writeCount;
+            if (existingCapacity > 0) {
+                writeCount = buffer.getLong(OFFSET_WRITE_COUNT);
+            } else {
+                buffer.putInt(OFFSET_MAGIC, MAGIC);
+                buffer.putInt(OFFSET_VERSION, VERSION);
+                buffer.putInt(OFFSET_CAPACITY, actualCapacity);
+                buffer.putLong(OFFSET_WRITE_COUNT, 0L);
+                writeCount = 0;
+            }
+            return new ReminderHistoryLog(file, buffer, actualCapacity, writeCount);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Capacity from a valid header, or 0 if the file is new or unreadable
+     */
+    private static int readValidCapacity(RandomAccessFile file) throws IOException {
+        if (file.length() < HEADER_SIZE) {
+            return 0;
+        }
+        file.seek(0);
+        if (file.readInt() != MAGIC || file.readInt() != VERSION) {
+            return 0;
+        }
+        int capacity = file.readInt();
+        if (capacity <= 0 || file.length() != HEADER_SIZE + (long) capacity * RECORD_SIZE) {
+            return 0;
+        }
+        return capacity;
+    }
+
+    /**
+     * Append one record, overwriting the oldest once the ring is full
+     */
+    public synchronized void append(long scheduledMillis, long actualMillis, int outcome, int latencyMillis) {
+        int offset = recordOffset(writeCount);
+        buffer.putLong(offset, scheduledMillis);
+        buffer.putLong(offset + 8, actualMillis);
+        buffer.putInt(offset + 16, outcome);
+        buffer.putInt(offset + 20, latencyMillis);
+        writeCount++;
+        // Header last, so a torn append never exposes a half-written record
+        buffer.putLong(OFFSET_WRITE_COUNT, writeCount);
+    }
+
+    /**
+     * Visit the retained records from oldest to newest
+     */
+    public synchronized void forEach(Visitor visitor) {
+        long first = Math.max(0, writeCount - capacity);
+        for (long i = first; i < writeCount; i++) {
+            int offset = recordOffset(i);
+            visitor.visit(buffer.getLong(offset), buffer.getLong(offset + 8),
+                    buffer.getInt(offset + 16), buffer.getInt(offset + 20));
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Number of records currently retained
+     */
+    public synchronized int size() {
+        return (int) Math.min(writeCount, capacity);
+    }
+
+    /**
+     * Total number of records ever appended
+     */
+    public synchronized long getWriteCount() {
+        return writeCount;
+    }
+
+    private int recordOffset(long index) {
+        return HEADER_SIZE + (int) (index % capacity) * RECORD_SIZE;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
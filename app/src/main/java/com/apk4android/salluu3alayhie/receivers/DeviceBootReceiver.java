@@ -1,31 +1,26 @@
 package com.apk4android.salluu3alayhie.receivers;
 
-import static android.content.Context.ALARM_SERVICE;
-
-import android.app.AlarmManager;
-import android.app.PendingIntent;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.util.Log;
 
-import com.apk4android.salluu3alayhie.services.RepeatReminderService;
-
-import java.util.Calendar;
+import com.apk4android.salluu3alayhie.common.ReminderWorker;
+import com.apk4android.salluu3alayhie.scheduler.ReminderAlarms;
+import com.apk4android.salluu3alayhie.stats.ReminderStats;
+import com.apk4android.salluu3alayhie.utils.DeferredReminders;
 
 /**
- * Broadcast receiver for handling device boot completion.
- * Restarts the prayer reminder service when the device reboots.
+ * Broadcast receiver for boot completion and wall-clock changes.
+ * Restores the reminder timeline that was running, on its original slots,
+ * through the same code path the live scheduler uses.
+ * The work runs on the reminder worker and the broadcast is kept open with goAsync() until
+ * the settings it changed (e.g. a new anchor after a time zone change) have been persisted.
  */
 public class DeviceBootReceiver extends BroadcastReceiver {
 
     private static final String TAG = "DeviceBootReceiver";
-    private static final String PREF_NAME = "setTimes";
-    private static final String KEY_REPEAT_EVERY = "repeatEvery";
-    private static final String KEY_NOTIFICATION_TYPE = "TypeOfNotification";
-    private static final String DEFAULT_NOTIFICATION_TYPE = "Voice";
-    private static final int DEFAULT_REPEAT_TIME = 60000; // 1 minute
+    private static final String ACTION_QUICKBOOT_POWERON = "android.intent.action.QUICKBOOT_POWERON";
 
     @Override
     public void onReceive(Context context, Intent intent) {
@@ -34,64 +29,50 @@ public class DeviceBootReceiver extends BroadcastReceiver {
             return;
         }
 
-        if (Intent.ACTION_BOOT_COMPLETED.equals(intent.getAction())) {
-            Log.d(TAG, "Device boot completed, restarting prayer reminder service");
-            restartPrayerReminderService(context);
-        }
+        String action = intent.getAction();
+        Context appContext = context.getApplicationContext();
+        PendingResult pendingResult = goAsync();
+        ReminderWorker.post(() -> {
+            try {
+                handleAction(appContext, action);
+            } finally {
+                // Queued behind the settings persist the restore may have posted
+                ReminderWorker.post(pendingResult::finish);
+            }
+        });
     }
 
     /**
-     * Restart the prayer reminder service with saved preferences
+     * Worker thread
      */
-    private void restartPrayerReminderService(Context context) {
-        SharedPreferences sharedPreferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        
-        // Get saved timer interval
-        int repeatTime = sharedPreferences.getInt(KEY_REPEAT_EVERY, DEFAULT_REPEAT_TIME);
-        String notificationType = sharedPreferences.getString(KEY_NOTIFICATION_TYPE, DEFAULT_NOTIFICATION_TYPE);
-        
-        Log.d(TAG, "Restarting service with interval: " + repeatTime + "ms, type: " + notificationType);
-        
-        // Schedule the alarm
-        scheduleAlarm(context, repeatTime);
+    private void handleAction(Context context, String action) {
+        switch (action) {
+            case Intent.ACTION_BOOT_COMPLETED:
+            case ACTION_QUICKBOOT_POWERON:
+                restoreTimeline(context, action, false);
+                // A reminder deferred before the reboot is replayed now, or once the phone is free
+                DeferredReminders.getInstance(context).replayIfIdle();
+                break;
+            case Intent.ACTION_TIME_CHANGED:
+                restoreTimeline(context, action, false);
+                break;
+            case Intent.ACTION_TIMEZONE_CHANGED:
+                ReminderStats.onTimeZoneChanged();
+                restoreTimeline(context, action, true);
+                break;
+            default:
+                Log.w(TAG, "Unhandled action: " + action);
+                break;
+        }
     }
 
     /**
-     * Schedule the alarm using AlarmManager
+     * Re-arm the saved timeline if the timer was running
      */
-    private void scheduleAlarm(Context context, int repeatTime) {
-        try {
-            AlarmManager alarmManager = (AlarmManager) context.getSystemService(ALARM_SERVICE);
-            if (alarmManager == null) {
-                Log.e(TAG, "AlarmManager is null");
-                return;
-            }
-
-            // Create intent for the service
-            Intent serviceIntent = new Intent(context, RepeatReminderService.class);
-            PendingIntent pendingIntent = PendingIntent.getService(
-                context, 
-                0, 
-                serviceIntent, 
-                PendingIntent.FLAG_IMMUTABLE
-            );
-
-            // Calculate next trigger time
-            Calendar calendar = Calendar.getInstance();
-            calendar.add(Calendar.MILLISECOND, repeatTime);
-
-            // Schedule the alarm
-            alarmManager.setRepeating(
-                AlarmManager.RTC_WAKEUP,
-                calendar.getTimeInMillis(),
-                repeatTime,
-                pendingIntent
-            );
-
-            Log.d(TAG, "Alarm scheduled successfully for: " + repeatTime + "ms");
-            
-        } catch (Exception e) {
-            Log.e(TAG, "Error scheduling alarm", e);
+    private void restoreTimeline(Context context, String action, boolean timeZoneChanged) {
+        Log.d(TAG, action + " received, restoring reminder timeline");
+        if (ReminderAlarms.restoreTimeline(context, timeZoneChanged)) {
+            Log.d(TAG, "Reminder timeline restored");
         }
     }
-}
\ No newline at end of file
+}
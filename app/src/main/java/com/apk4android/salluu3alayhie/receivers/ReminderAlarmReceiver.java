@@ -0,0 +1,134 @@
+package com.apk4android.salluu3alayhie.receivers;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+import androidx.core.content.ContextCompat;
+
+import com.apk4android.salluu3alayhie.audio.AudioStateTracker;
+import com.apk4android.salluu3alayhie.audio.SoundPoolBackend;
+import com.apk4android.salluu3alayhie.common.ReminderWorker;
+import com.apk4android.salluu3alayhie.history.ReminderHistory;
+import com.apk4android.salluu3alayhie.history.ReminderHistoryLog;
+import com.apk4android.salluu3alayhie.scheduler.ReminderAlarms;
+import com.apk4android.salluu3alayhie.scheduler.ReminderProfile;
+import com.apk4android.salluu3alayhie.services.RepeatReminderService;
+import com.apk4android.salluu3alayhie.utils.DeferredReminders;
+import com.apk4android.salluu3alayhie.utils.ReminderPlayer;
+import com.apk4android.salluu3alayhie.utils.ReminderWakeLock;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lightweight target of the reminder alarm.
+ * The broadcast is kept open with goAsync() while the reminder worker re-arms the next slot and
+ * delivers the reminder: short clips play right here, within the broadcast window, and only
+ * longer clips start the foreground playback job. In silent, DND or call state the reminder is
+ * shown visually without any audio, and its sound is deferred until the call ends or the
+ * ringer is back to normal.
+ */
+public class ReminderAlarmReceiver extends BroadcastReceiver {
+
+    private static final String TAG = "ReminderAlarmReceiver";
+
+    /**
+     * Longest clip played without the foreground job
+     */
+    private static final long DIRECT_PLAY_MAX_CLIP_MILLIS = SoundPoolBackend.MAX_CLIP_DURATION_MS;
+
+    /**
+     * The broadcast is finished by then at the latest, well inside the 10 second goAsync() limit;
+     * the wake lock keeps a clip that is still playing going
+     */
+    private static final long BROADCAST_FINISH_TIMEOUT_MILLIS = 8_000;
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (intent == null || !RepeatReminderService.ACTION_TICK.equals(intent.getAction())) {
+            Log.w(TAG, "Received unexpected intent: " + intent);
+            return;
+        }
+
+        long firedAt = System.currentTimeMillis();
+        long scheduledTime = intent.getLongExtra(RepeatReminderService.EXTRA_SCHEDULED_TIME, 0);
+        Log.d(TAG, "Reminder alarm fired for slot: " + scheduledTime);
+
+        // Held until the clip completes (released by the player) or the bound runs out
+        ReminderWakeLock.getInstance(context).acquire(ReminderWakeLock.FIRE_TIMEOUT_MILLIS);
+
+        Context appContext = context.getApplicationContext();
+        PendingResult pendingResult = goAsync();
+        AtomicBoolean finished = new AtomicBoolean();
+        Runnable finish = () -> {
+            if (finished.compareAndSet(false, true)) {
+                pendingResult.finish();
+            }
+        };
+        ReminderWorker.getHandler().postDelayed(finish, BROADCAST_FINISH_TIMEOUT_MILLIS);
+        ReminderWorker.post(() -> {
+            try {
+                deliver(appContext, scheduledTime, firedAt, finish);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Reminder delivery failed", e);
+                ReminderWakeLock.getInstance(appContext).release();
+                finish.run();
+            }
+        });
+    }
+
+    /**
+     * Re-arm and deliver one reminder; worker thread. Runs finish once the broadcast can end.
+     */
+    private static void deliver(Context context, long scheduledTime, long firedAt, Runnable finish) {
+        // Keep the chain going before anything else can fail
+        List<ReminderProfile> dueProfiles = ReminderAlarms.armSlotAfter(context, scheduledTime);
+        if (dueProfiles.isEmpty()) {
+            Log.d(TAG, "No profile due at slot " + scheduledTime + " anymore");
+            ReminderWakeLock.getInstance(context).release();
+            finish.run();
+            return;
+        }
+        // One sound per wakeup, even when several profiles share the slot
+        String notificationType = dueProfiles.get(0).getNotificationType();
+
+        AudioStateTracker.Snapshot audioState = AudioStateTracker.getInstance(context).getSnapshot();
+        if (audioState.isBusy()) {
+            Log.d(TAG, "Sound not allowed (" + audioState + "), showing silent reminder");
+            ReminderPlayer.showSilentReminder(context);
+            DeferredReminders.getInstance(context).defer(scheduledTime, notificationType);
+            ReminderHistory.record(context, scheduledTime, firedAt, audioState.isInCall()
+                    ? ReminderHistoryLog.OUTCOME_SKIPPED_CALL : ReminderHistoryLog.OUTCOME_VISUAL,
+                    ReminderHistoryLog.NO_LATENCY);
+            ReminderWakeLock.getInstance(context).release();
+            // Queued behind the deferred slot's settings persist, so the broadcast outlives the write
+            ReminderWorker.post(finish);
+            return;
+        }
+        // A reminder deferred before the process was restarted is covered by this one
+        DeferredReminders.getInstance(context).coalesceInto(scheduledTime);
+
+        long clipMillis = ReminderPlayer.getReminderClipDurationMillis(context, notificationType);
+        if (clipMillis >= 0 && clipMillis <= DIRECT_PLAY_MAX_CLIP_MILLIS) {
+            Log.d(TAG, "Playing " + clipMillis + "ms clip from the receiver");
+            ReminderPlayer.getInstance(context).playReminder(scheduledTime, firedAt, notificationType, finish);
+            return;
+        }
+
+        Intent playIntent = RepeatReminderService.createTickIntent(context)
+                .putExtra(RepeatReminderService.EXTRA_SCHEDULED_TIME, scheduledTime)
+                .putExtra(RepeatReminderService.EXTRA_FIRED_AT, firedAt)
+                .putExtra(RepeatReminderService.EXTRA_NOTIFICATION_TYPE, notificationType);
+        try {
+            ContextCompat.startForegroundService(context, playIntent);
+            finish.run();
+        } catch (IllegalStateException e) {
+            // Android 12+ refuses background foreground-service starts outside exact alarm delivery;
+            // play from here instead, the wake lock covers the clip past the broadcast window
+            Log.w(TAG, "Could not start playback job, playing from the receiver", e);
+            ReminderPlayer.getInstance(context).playReminder(scheduledTime, firedAt, notificationType, finish);
+        }
+    }
+}
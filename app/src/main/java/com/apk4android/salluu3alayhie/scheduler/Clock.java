@@ -0,0 +1,18 @@
+package com.apk4android.salluu3alayhie.scheduler;
+
+/**
+ * Source of wall-clock time for the reminder scheduler.
+ * Injected so the scheduling logic can be driven by a fake clock in unit tests.
+ */
+public interface Clock {
+
+    /**
+     * Clock backed by {@link System#currentTimeMillis()}, matching AlarmManager.RTC_WAKEUP
+     */
+    Clock SYSTEM = System::currentTimeMillis;
+
+    /**
+     * Current wall-clock time in epoch milliseconds
+     */
+    long currentTimeMillis();
+}
@@ -0,0 +1,68 @@
+package com.apk4android.salluu3alayhie.scheduler;
+
+/**
+ * How strictly a reminder slot has to be hit.
+ * EXACT forces a dedicated wakeup at the slot; WINDOWED lets the OS deliver the alarm
+ * anywhere in {@code slot ± tolerance} so it can be batched with other apps' wakeups.
+ */
+public final class DeliveryPolicy {
+
+    public enum Mode {
+        EXACT,
+        WINDOWED
+    }
+
+    public static final DeliveryPolicy EXACT = new DeliveryPolicy(Mode.EXACT, 0);
+
+    private final Mode mode;
+    private final long toleranceMillis;
+
+    private DeliveryPolicy(Mode mode, long toleranceMillis) {
+        this.mode = mode;
+        this.toleranceMillis = toleranceMillis;
+    }
+
+    /**
+     * Battery-friendly policy allowing delivery up to the given tolerance before or after the slot
+     */
+    public static DeliveryPolicy windowed(long toleranceMillis) {
+        if (toleranceMillis <= 0) {
+            return EXACT;
+        }
+        return new DeliveryPolicy(Mode.WINDOWED, toleranceMillis);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public long getToleranceMillis() {
+        return toleranceMillis;
+    }
+
+    public boolean isExact() {
+        return mode == Mode.EXACT;
+    }
+
+    /**
+     * Earliest time the alarm for the slot may fire; never in the past
+     */
+    public long windowStart(long slotMillis, long intervalMillis, long nowMillis) {
+        return Math.max(nowMillis, slotMillis - effectiveTolerance(intervalMillis));
+    }
+
+    /**
+     * Length of the delivery window that starts at {@link #windowStart}
+     */
+    public long windowLength(long slotMillis, long intervalMillis, long nowMillis) {
+        long windowEnd = slotMillis + effectiveTolerance(intervalMillis);
+        return windowEnd - windowStart(slotMillis, intervalMillis, nowMillis);
+    }
+
+    /**
+     * Tolerance capped at a quarter interval so neighbouring windows never meet
+     */
+    public long effectiveTolerance(long intervalMillis) {
+        return Math.min(toleranceMillis, intervalMillis / 4);
+    }
+}
@@ -0,0 +1,93 @@
+package com.apk4android.salluu3alayhie.scheduler;
+
+/**
+ * Bounded queue of reminder slots that could not be played because the device was busy
+ * (call, silent or DND). Draining coalesces everything pending into a single {@link Replay},
+ * so N missed reminders come back as one instead of a burst.
+ * Once full, the oldest slot is dropped but still counted.
+ */
+public final class PendingReminderQueue {
+
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Coalesced result of a drain
+     */
+    public static final class Replay {
+        private final int missedCount;
+        private final long oldestSlotMillis;
+        private final long newestSlotMillis;
+
+        Replay(int missedCount, long oldestSlotMillis, long newestSlotMillis) {
+            this.missedCount = missedCount;
+            this.oldestSlotMillis = oldestSlotMillis;
+            this.newestSlotMillis = newestSlotMillis;
+        }
+
+        public int getMissedCount() {
+            return missedCount;
+        }
+
+        public long getOldestSlotMillis() {
+            return oldestSlotMillis;
+        }
+
+        public long getNewestSlotMillis() {
+            return newestSlotMillis;
+        }
+    }
+
+    private final long[] slots;
+    private int head;
+    private int size;
+    private int droppedCount;
+
+    public PendingReminderQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PendingReminderQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.slots = new long[capacity];
+    }
+
+    /**
+     * Record a missed slot, evicting the oldest one when the queue is full
+     */
+    public synchronized void offer(long slotMillis) {
+        if (size == slots.length) {
+            head = (head + 1) % slots.length;
+            size--;
+            droppedCount++;
+        }
+        slots[(head + size) % slots.length] = slotMillis;
+        size++;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Missed reminders waiting for a replay, including those evicted by the bound
+     */
+    public synchronized int pendingCount() {
+        return size + droppedCount;
+    }
+
+    /**
+     * Take everything pending as one coalesced replay, or null if nothing is pending
+     */
+    public synchronized Replay drain() {
+        if (size == 0) {
+            return null;
+        }
+        Replay replay = new Replay(size + droppedCount, slots[head], slots[(head + size - 1) % slots.length]);
+        head = 0;
+        size = 0;
+        droppedCount = 0;
+        return replay;
+    }
+}
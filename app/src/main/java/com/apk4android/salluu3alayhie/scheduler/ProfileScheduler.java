@@ -0,0 +1,159 @@
+package com.apk4android.salluu3alayhie.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TimeZone;
+
+/**
+ * Multiplexes any number of {@link ReminderProfile}s onto one alarm.
+ * Keeps every profile's next fire time in a priority queue; only the head is armed, and when it
+ * fires every profile due within the delivery window is taken in the same wakeup. Wakeups
+ * therefore grow with the number of distinct fire instants, not with the number of profiles.
+ *
+ * Holds no Android types. Entries and the queue are built once per profile list and re-seeded
+ * by {@link #start(long)}, so a wakeup only recomputes fire times; the process may die between
+ * alarms, so callers re-seed it from the saved profiles on each wakeup. Not thread-safe.
+ */
+public final class ProfileScheduler {
+
+    private static final class Entry implements Comparable<Entry> {
+        final ReminderProfile profile;
+        final int priority; // position in the profile list, earlier wins on ties
+        long nextFireMillis;
+
+        Entry(ReminderProfile profile, int priority) {
+            this.profile = profile;
+            this.priority = priority;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byTime = Long.compare(nextFireMillis, other.nextFireMillis);
+            return byTime != 0 ? byTime : Integer.compare(priority, other.priority);
+        }
+    }
+
+    private static final Comparator<Entry> BY_PRIORITY = (a, b) -> Integer.compare(a.priority, b.priority);
+
+    private final Entry[] entries;
+    private final TimeZone timeZone;
+    private final Clock clock;
+    private final PriorityQueue<Entry> queue;
+    private final List<Entry> due = new ArrayList<>();
+    private final List<Entry> notYet = new ArrayList<>();
+
+    /**
+     * @param profiles in priority order; the first due profile picks the sound of a shared wakeup
+     */
+    public ProfileScheduler(List<ReminderProfile> profiles, TimeZone timeZone) {
+        this(profiles, timeZone, Clock.SYSTEM);
+    }
+
+    public ProfileScheduler(List<ReminderProfile> profiles, TimeZone timeZone, Clock clock) {
+        if (profiles == null || timeZone == null || clock == null) {
+            throw new IllegalArgumentException("Profiles, time zone and clock must not be null");
+        }
+        this.entries = new Entry[profiles.size()];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = new Entry(profiles.get(i), i);
+        }
+        this.timeZone = timeZone;
+        this.clock = clock;
+        this.queue = new PriorityQueue<>(Math.max(1, entries.length));
+    }
+
+    public TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    /**
+     * Re-seed the queue with each profile's first fire time strictly after the given time
+     */
+    public ProfileScheduler start(long afterMillis) {
+        queue.clear();
+        for (Entry entry : entries) {
+            entry.nextFireMillis = entry.profile.nextFireAfter(afterMillis, timeZone);
+            if (entry.nextFireMillis != Long.MAX_VALUE) {
+                queue.add(entry);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Re-seed the queue from the current time of the scheduler's clock
+     */
+    public ProfileScheduler startFromNow() {
+        return start(clock.currentTimeMillis());
+    }
+
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    /**
+     * Earliest pending fire time, or {@link Long#MAX_VALUE} when nothing is scheduled
+     */
+    public long peekNextFireTime() {
+        Entry head = queue.peek();
+        return head == null ? Long.MAX_VALUE : head.nextFireMillis;
+    }
+
+    /**
+     * Profile that will fire first, or null when nothing is scheduled
+     */
+    public ReminderProfile peekNextProfile() {
+        Entry head = queue.peek();
+        return head == null ? null : head.profile;
+    }
+
+    /**
+     * Take every profile due at or before the deadline, in priority order, and move each to its
+     * first slot after the deadline; slots missed in between are skipped, not replayed
+     */
+    public List<ReminderProfile> pollDue(long deadlineMillis) {
+        return pollDue(deadlineMillis, DeliveryPolicy.EXACT);
+    }
+
+    /**
+     * Take every profile whose slot falls within its delivery window around fireMillis, in
+     * priority order. Each profile's window uses the policy tolerance capped for its own interval,
+     * so a wide window never swallows the next slot of a short-interval profile.
+     */
+    public List<ReminderProfile> pollDue(long fireMillis, DeliveryPolicy policy) {
+        due.clear();
+        notYet.clear();
+        long widestDeadline = fireMillis + policy.getToleranceMillis();
+        while (!queue.isEmpty() && queue.peek().nextFireMillis <= widestDeadline) {
+            Entry entry = queue.poll();
+            if (entry.nextFireMillis <= deadlineOf(entry, fireMillis, policy)) {
+                due.add(entry);
+            } else {
+                notYet.add(entry);
+            }
+        }
+        queue.addAll(notYet);
+        notYet.clear();
+        if (due.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ReminderProfile> dueProfiles = new ArrayList<>(due.size());
+        Collections.sort(due, BY_PRIORITY);
+        for (Entry entry : due) {
+            dueProfiles.add(entry.profile);
+            entry.nextFireMillis = entry.profile.nextFireAfter(deadlineOf(entry, fireMillis, policy), timeZone);
+            if (entry.nextFireMillis != Long.MAX_VALUE) {
+                queue.add(entry);
+            }
+        }
+        due.clear();
+        return dueProfiles;
+    }
+
+    private static long deadlineOf(Entry entry, long fireMillis, DeliveryPolicy policy) {
+        return fireMillis + policy.effectiveTolerance(entry.profile.getIntervalMillis());
+    }
+}
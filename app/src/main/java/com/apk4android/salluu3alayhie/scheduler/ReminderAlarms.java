@@ -0,0 +1,246 @@
+package com.apk4android.salluu3alayhie.scheduler;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.apk4android.salluu3alayhie.receivers.ReminderAlarmReceiver;
+import com.apk4android.salluu3alayhie.services.RepeatReminderService;
+import com.apk4android.salluu3alayhie.settings.ReminderSettings;
+import com.apk4android.salluu3alayhie.settings.ReminderSettingsRepository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * AlarmManager glue shared by the UI, the alarm receiver and the boot receiver.
+ * All reminder profiles share the single tick alarm: a {@link ProfileScheduler} picks the
+ * earliest fire time, which is armed according to the user's delivery policy; the tick is
+ * delivered to {@link ReminderAlarmReceiver}, which takes the due profiles and re-arms.
+ */
+public final class ReminderAlarms {
+
+    private static final String TAG = "ReminderAlarms";
+    private static final long MAX_ON_TIME_LATENESS_MILLIS = 60 * 1000L;
+
+    // Kept between wakeups of this process while the settings snapshot and time zone are unchanged
+    private static ReminderSettings cachedSettings;
+    private static ProfileScheduler cachedScheduler;
+
+    private ReminderAlarms() {
+    }
+
+    /**
+     * Start a new slot timeline from now (or local midnight when aligning to the clock)
+     * and arm its first slot
+     */
+    public static boolean startTimeline(@NonNull Context context) {
+        ReminderSettingsRepository repository = ReminderSettingsRepository.getInstance(context);
+        long now = Clock.SYSTEM.currentTimeMillis();
+        long anchorTime = repository.get().isAlignToClock()
+                ? ReminderScheduler.wallClockAnchor(now, TimeZone.getDefault())
+                : now;
+        repository.apply(new ReminderSettings.Editor()
+                .setAnchorTimeMillis(anchorTime)
+                .setTimerActive(true));
+        return armNextSlot(context);
+    }
+
+    /**
+     * Stop the timeline: mark it inactive and cancel the armed alarm
+     */
+    public static void stopTimeline(@NonNull Context context) {
+        ReminderSettingsRepository.getInstance(context).apply(new ReminderSettings.Editor().setTimerActive(false));
+        cancel(context);
+    }
+
+    /**
+     * Restore exactly the timeline that was running, e.g. after boot or a clock change.
+     * Does nothing (beyond clearing stale alarms) when the user had stopped the timer.
+     */
+    public static boolean restoreTimeline(@NonNull Context context, boolean timeZoneChanged) {
+        cancelLegacyServiceAlarm(context);
+        ReminderSettingsRepository repository = ReminderSettingsRepository.getInstance(context);
+        ReminderSettings settings = repository.get();
+        if (!settings.isTimerActive()) {
+            Log.d(TAG, "Timer not active, nothing to restore");
+            cancel(context);
+            return false;
+        }
+        if (timeZoneChanged) {
+            // Midnight-anchored profiles follow the zone the scheduler was built for
+            invalidateScheduler();
+        }
+        if (timeZoneChanged && settings.isAlignToClock()) {
+            // Clock-aligned slots follow local time: re-anchor on the new zone's midnight
+            long anchorTime = ReminderScheduler.wallClockAnchor(Clock.SYSTEM.currentTimeMillis(), TimeZone.getDefault());
+            repository.apply(new ReminderSettings.Editor().setAnchorTimeMillis(anchorTime));
+        }
+        return armNextSlot(context);
+    }
+
+    /**
+     * Arm the earliest profile slot after now on the saved timelines; cancels instead when the
+     * timer is stopped
+     */
+    public static boolean armNextSlot(@NonNull Context context) {
+        ReminderSettings settings = ReminderSettingsRepository.getInstance(context).get();
+        if (!settings.isTimerActive()) {
+            Log.d(TAG, "Timer not active, not arming");
+            cancel(context);
+            return false;
+        }
+        return armHead(context, schedulerFor(settings).startFromNow(), settings.getDeliveryPolicy());
+    }
+
+    /**
+     * Take every profile due at the slot that just fired (or within its delivery window) and
+     * arm the next earliest slot, skipping any slots missed while dozing.
+     * Returns the due profiles in priority order; the first one picks the sound. A tick without
+     * a slot (armed by an older version) returns the profile that is next due from now.
+     * A tick still queued when the timer was stopped cancels the alarm and returns nothing.
+     */
+    @NonNull
+    public static List<ReminderProfile> armSlotAfter(@NonNull Context context, long firedSlotTime) {
+        ReminderSettings settings = ReminderSettingsRepository.getInstance(context).get();
+        if (!settings.isTimerActive()) {
+            Log.d(TAG, "Timer stopped, dropping tick for slot " + firedSlotTime);
+            cancel(context);
+            return Collections.emptyList();
+        }
+        DeliveryPolicy policy = settings.getDeliveryPolicy();
+        long now = Clock.SYSTEM.currentTimeMillis();
+        ProfileScheduler scheduler = schedulerFor(settings);
+        if (firedSlotTime <= 0) {
+            scheduler.start(now);
+            ReminderProfile head = scheduler.peekNextProfile();
+            armHead(context, scheduler, policy);
+            return head == null ? Collections.<ReminderProfile>emptyList() : Collections.singletonList(head);
+        }
+        if (now - firedSlotTime > MAX_ON_TIME_LATENESS_MILLIS) {
+            Log.w(TAG, "Alarm delivered " + (now - firedSlotTime) + "ms late, missed slots are skipped");
+        }
+        scheduler.start(firedSlotTime - 1);
+        // Windowed alarms may fire just before their slot: the slot itself is still taken, never re-targeted
+        List<ReminderProfile> due = scheduler.pollDue(Math.max(now, firedSlotTime), policy);
+        Log.d(TAG, "Slot " + firedSlotTime + " fires " + due);
+        armHead(context, scheduler, policy);
+        return due;
+    }
+
+    /**
+     * Scheduler for the snapshot's profiles, only rebuilt when the settings changed; worker thread
+     */
+    private static synchronized ProfileScheduler schedulerFor(ReminderSettings settings) {
+        if (cachedScheduler == null || cachedSettings != settings) {
+            cachedScheduler = new ProfileScheduler(settings.getProfiles(), TimeZone.getDefault(), Clock.SYSTEM);
+            cachedSettings = settings;
+        }
+        return cachedScheduler;
+    }
+
+    private static synchronized void invalidateScheduler() {
+        cachedScheduler = null;
+        cachedSettings = null;
+    }
+
+    /**
+     * Arm the earliest pending slot of the scheduler, if any
+     */
+    private static boolean armHead(Context context, ProfileScheduler scheduler, DeliveryPolicy policy) {
+        ReminderProfile next = scheduler.peekNextProfile();
+        if (next == null) {
+            Log.w(TAG, "No reminder profile has a next slot");
+            cancel(context);
+            return false;
+        }
+        return arm(context, scheduler.peekNextFireTime(), next.getIntervalMillis(), policy);
+    }
+
+    /**
+     * Arm the tick alarm for the given slot, replacing any previously armed one
+     */
+    public static boolean arm(@NonNull Context context, long slotTime, long intervalMillis,
+                              @NonNull DeliveryPolicy policy) {
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        if (alarmManager == null) {
+            Log.e(TAG, "AlarmManager is null, cannot schedule alarms");
+            return false;
+        }
+
+        PendingIntent pendingIntent = createTickPendingIntent(context, slotTime);
+        if (policy.isExact()) {
+            armExact(alarmManager, slotTime, pendingIntent);
+        } else {
+            long now = System.currentTimeMillis();
+            long windowStart = policy.windowStart(slotTime, intervalMillis, now);
+            long windowLength = policy.windowLength(slotTime, intervalMillis, now);
+            alarmManager.setWindow(AlarmManager.RTC_WAKEUP, windowStart, windowLength, pendingIntent);
+            Log.d(TAG, "Windowed alarm scheduled for slot " + slotTime + " (window " + windowLength + "ms)");
+        }
+        return true;
+    }
+
+    /**
+     * Cancel the armed tick alarm, if any
+     */
+    public static void cancel(@NonNull Context context) {
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        if (alarmManager != null) {
+            alarmManager.cancel(createTickPendingIntent(context, 0));
+        }
+    }
+
+    /**
+     * Cancel an alarm armed by older versions directly against the service
+     */
+    public static void cancelLegacyServiceAlarm(@NonNull Context context) {
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        PendingIntent legacyIntent = PendingIntent.getService(context, 0,
+                new Intent(context, RepeatReminderService.class),
+                PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE);
+        if (alarmManager != null && legacyIntent != null) {
+            alarmManager.cancel(legacyIntent);
+            legacyIntent.cancel();
+        }
+    }
+
+    /**
+     * Tick PendingIntent carrying the slot it was armed for
+     */
+    private static PendingIntent createTickPendingIntent(Context context, long slotTime) {
+        Intent tickIntent = new Intent(context, ReminderAlarmReceiver.class)
+                .setAction(RepeatReminderService.ACTION_TICK)
+                .putExtra(RepeatReminderService.EXTRA_SCHEDULED_TIME, slotTime);
+        return PendingIntent.getBroadcast(context, 0, tickIntent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    /**
+     * Exact alarm with inexact fallback when the exact alarm permission is missing
+     */
+    private static void armExact(AlarmManager alarmManager, long triggerTime, PendingIntent pendingIntent) {
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
+            } else {
+                alarmManager.setExact(AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
+            }
+            Log.d(TAG, "Exact alarm scheduled at: " + triggerTime);
+        } catch (SecurityException e) {
+            Log.w(TAG, "Exact alarm permission denied, using inexact alarm as fallback");
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
+            } else {
+                alarmManager.set(AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
+            }
+            Log.d(TAG, "Inexact alarm scheduled at: " + triggerTime);
+        }
+    }
+}
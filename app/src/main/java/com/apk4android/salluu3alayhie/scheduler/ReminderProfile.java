@@ -0,0 +1,110 @@
+package com.apk4android.salluu3alayhie.scheduler;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * One independent reminder: a sound repeated on its own slot timeline, optionally limited to
+ * some days of the week. Several profiles share a single alarm through {@link ProfileScheduler}.
+ */
+public final class ReminderProfile {
+
+    public static final int ALL_DAYS = 0x7F;
+
+    /**
+     * Anchor value for profiles whose slots follow local midnight of the day being scheduled
+     */
+    public static final long ANCHOR_LOCAL_MIDNIGHT = Long.MIN_VALUE;
+
+    private static final int MAX_DAYS_TO_SCAN = 8;
+
+    private final String id;
+    private final String notificationType;
+    private final long intervalMillis;
+    private final long anchorMillis;
+    private final int daysOfWeek;
+    // Built once for a fixed anchor; null when the anchor follows local midnight
+    private final ReminderScheduler timeline;
+
+    /**
+     * @param daysOfWeek bit mask of {@link #dayBit(int)} values, {@link #ALL_DAYS} for every day
+     */
+    public ReminderProfile(String id, String notificationType, long intervalMillis, long anchorMillis, int daysOfWeek) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Interval must be positive: " + intervalMillis);
+        }
+        this.id = id;
+        this.notificationType = notificationType;
+        this.intervalMillis = intervalMillis;
+        this.anchorMillis = anchorMillis;
+        this.daysOfWeek = daysOfWeek & ALL_DAYS;
+        this.timeline = anchorMillis == ANCHOR_LOCAL_MIDNIGHT ? null : new ReminderScheduler(anchorMillis, intervalMillis);
+    }
+
+    /**
+     * Mask bit of a {@link Calendar#DAY_OF_WEEK} value, e.g. {@code dayBit(Calendar.FRIDAY)}
+     */
+    public static int dayBit(int calendarDayOfWeek) {
+        return 1 << (calendarDayOfWeek - Calendar.SUNDAY);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getNotificationType() {
+        return notificationType;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public int getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    /**
+     * First slot of this profile strictly after the given time on an allowed day,
+     * or {@link Long#MAX_VALUE} if no day is allowed. Plain arithmetic for profiles that
+     * run every day; only day-restricted profiles go through a Calendar.
+     */
+    public long nextFireAfter(long timeMillis, TimeZone timeZone) {
+        if (daysOfWeek == 0) {
+            return Long.MAX_VALUE;
+        }
+        if (daysOfWeek == ALL_DAYS) {
+            return slotAfter(timeMillis, timeZone);
+        }
+        Calendar calendar = Calendar.getInstance(timeZone);
+        long after = timeMillis;
+        for (int i = 0; i < MAX_DAYS_TO_SCAN; i++) {
+            long slot = slotAfter(after, timeZone);
+            calendar.setTimeInMillis(slot);
+            if ((daysOfWeek & dayBit(calendar.get(Calendar.DAY_OF_WEEK))) != 0) {
+                return slot;
+            }
+            // Jump to just before the next local midnight
+            calendar.set(Calendar.HOUR_OF_DAY, 0);
+            calendar.set(Calendar.MINUTE, 0);
+            calendar.set(Calendar.SECOND, 0);
+            calendar.set(Calendar.MILLISECOND, 0);
+            calendar.add(Calendar.DAY_OF_MONTH, 1);
+            after = calendar.getTimeInMillis() - 1;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private long slotAfter(long timeMillis, TimeZone timeZone) {
+        if (timeline != null) {
+            return timeline.slotAfter(timeMillis);
+        }
+        return ReminderScheduler.slotAfter(ReminderScheduler.wallClockAnchor(timeMillis, timeZone),
+                intervalMillis, timeMillis);
+    }
+
+    @Override
+    public String toString() {
+        return id + "(" + notificationType + " every " + intervalMillis + "ms)";
+    }
+}
@@ -0,0 +1,66 @@
+package com.apk4android.salluu3alayhie.scheduler;
+
+import java.util.TimeZone;
+
+/**
+ * Framework-free arithmetic of one slot timeline, deciding when a reminder should fire next.
+ * Holds no Android types so it can be exercised on the JVM; callers pass the time to schedule
+ * from (read from a {@link Clock}) and only hand the returned epoch time to AlarmManager.
+ *
+ * Reminders sit on a fixed timeline of slots {@code anchor + k * interval}. Every alarm
+ * targets the next slot after "now", so playback time never shifts the schedule and
+ * slots missed while the device was dozing are skipped rather than replayed.
+ */
+public final class ReminderScheduler {
+
+    public static final long DEFAULT_INTERVAL_MILLIS = 60000L; // 1 minute default
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final long anchorMillis;
+    private final long intervalMillis;
+
+    public ReminderScheduler(long anchorMillis, long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Interval must be positive: " + intervalMillis);
+        }
+        this.anchorMillis = anchorMillis;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Anchor at local midnight of the given day, so slots land on round clock times
+     * (:00/:15/:30/:45 for a 15 minute interval)
+     */
+    public static long wallClockAnchor(long nowMillis, TimeZone timeZone) {
+        long offset = timeZone.getOffset(nowMillis);
+        long localMillis = nowMillis + offset;
+        long localDayStart = localMillis - ((localMillis % DAY_MILLIS) + DAY_MILLIS) % DAY_MILLIS;
+        return localDayStart - offset;
+    }
+
+    public long getAnchorMillis() {
+        return anchorMillis;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * Epoch time of the first slot strictly after the given time
+     */
+    public long slotAfter(long timeMillis) {
+        return slotAfter(anchorMillis, intervalMillis, timeMillis);
+    }
+
+    /**
+     * Same as {@link #slotAfter(long)} for a timeline given by its anchor, without an instance
+     */
+    public static long slotAfter(long anchorMillis, long intervalMillis, long timeMillis) {
+        if (timeMillis < anchorMillis) {
+            return anchorMillis;
+        }
+        long elapsedSlots = (timeMillis - anchorMillis) / intervalMillis;
+        return anchorMillis + (elapsedSlots + 1) * intervalMillis;
+    }
+}
@@ -1,6 +1,5 @@
 package com.apk4android.salluu3alayhie.services;
 
-import android.app.AlarmManager;
 import android.app.Notification;
 import android.app.NotificationChannel;
 import android.app.NotificationManager;
@@ -8,7 +7,6 @@ import android.app.PendingIntent;
 import android.app.Service;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Build;
 import android.os.IBinder;
 import android.util.Log;
@@ -18,139 +16,152 @@ import androidx.annotation.Nullable;
 import androidx.core.app.NotificationCompat;
 
 import com.apk4android.salluu3alayhie.R;
+import com.apk4android.salluu3alayhie.common.ReminderWorker;
+import com.apk4android.salluu3alayhie.scheduler.ReminderAlarms;
 import com.apk4android.salluu3alayhie.ui.MainActivity;
 import com.apk4android.salluu3alayhie.utils.ReminderPlayer;
-import com.apk4android.salluu3alayhie.utils.Utils;
-
-import java.util.Calendar;
 
 /**
- * Foreground service for managing prayer reminder timers and audio playback.
- * Handles exact alarm scheduling with fallback support for different Android versions.
+ * Short-lived foreground job that plays a single prayer reminder.
+ * Started by {@link com.apk4android.salluu3alayhie.receivers.ReminderAlarmReceiver} on each alarm,
+ * it stays in the foreground only for the few seconds of playback and then stops itself so the
+ * process can be reclaimed until the next alarm.
+ *
+ * Threading: onStartCommand only enters the foreground on the main thread; the command itself,
+ * with its alarm and settings work and all player control, runs on the {@link ReminderWorker}.
  */
 public class RepeatReminderService extends Service {
     
     private static final String TAG = "RepeatReminderService";
     public static final String CHANNEL_ID = "RepeatProphetMohamedReminder";
     private static final int NOTIFICATION_ID = 1;
-    private static final int DEFAULT_REPEAT_TIME = 60000; // 1 minute default
     
-    private ReminderPlayer player;
-    private AlarmManager alarmManager;
-    private PendingIntent alarmPendingIntent;
-    private boolean isTimerRunning = false;
-
-    @Override
-    public int onStartCommand(Intent intent, int flags, int startId) {
-        Log.d(TAG, "Service started");
-        
-        initializeService();
-        return START_STICKY; // Keep service running
-    }
+    // Intent actions understood by the service
+    public static final String ACTION_START = "com.apk4android.salluu3alayhie.action.START";
+    public static final String ACTION_TICK = "com.apk4android.salluu3alayhie.action.TICK";
+    public static final String EXTRA_SCHEDULED_TIME = "scheduledTime";
+    public static final String EXTRA_FIRED_AT = "firedAt";
+    public static final String EXTRA_NOTIFICATION_TYPE = "notificationType";
 
     /**
-     * Initialize the service components
+     * Lifecycle of the playback job inside this service instance
      */
-    private void initializeService() {
-        startTimer();
-        setupPlayer();
-        createServiceNotification();
+    private enum State {
+        IDLE,     // nothing playing, service about to stop
+        PLAYING   // reminder is being played
     }
+    
+    // Worker thread only
+    private ReminderPlayer player;
+    private State state = State.IDLE;
+    private int handledStartId;
+
+    // Written on the main thread as each command arrives
+    private volatile int latestStartId;
 
     /**
-     * Setup the audio player with completion callback
+     * Build the intent that plays one reminder
      */
-    private void setupPlayer() {
-        player = new ReminderPlayer(this);
-        player.setOnPlaybackCompleteListener(this::scheduleNextAlarm);
-        player.playReminder();
+    @NonNull
+    public static Intent createTickIntent(@NonNull Context context) {
+        return new Intent(context, RepeatReminderService.class).setAction(ACTION_TICK);
     }
 
-    /**
-     * Start the timer with the configured repeat interval
-     */
-    private void startTimer() {
-        int repeatTime = getRepeatTime();
-        Log.d(TAG, "Starting timer with interval: " + repeatTime + "ms (" + (repeatTime / 60000) + " minutes)");
-        
-        setupAlarmManager();
-        scheduleAlarm(repeatTime);
-        
-        isTimerRunning = true;
-        Log.d(TAG, "Timer started successfully");
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        latestStartId = startId;
+        if (intent == null) {
+            // Never redelivered (START_NOT_STICKY), so there is nothing to play
+            stopSelf(startId);
+            return START_NOT_STICKY;
+        }
+        String action = intent.getAction();
+        // Must happen promptly after startForegroundService, so not queued behind other work
+        createServiceNotification();
+        ReminderWorker.post(() -> handleCommand(intent, action, startId));
+        // Nothing to resume if the process dies: the next alarm starts a fresh job
+        return START_NOT_STICKY;
     }
 
     /**
-     * Get the repeat time from shared preferences
+     * Run one start command; worker thread
      */
-    private int getRepeatTime() {
-        SharedPreferences sharedPreferences = Utils.getSharedPreferences();
-        return sharedPreferences.getInt("repeatEvery", DEFAULT_REPEAT_TIME);
+    private void handleCommand(Intent intent, String action, int startId) {
+        handledStartId = startId;
+        Log.d(TAG, "Service command: " + action + " (state: " + state + ")");
+
+        if (action == null) {
+            // Alarm armed by an older version against the service: migrate it to the receiver.
+            // Older versions saved neither the active flag nor an anchor, so start a timeline from
+            // this tick; restoreTimeline then keeps it across reboots and clock changes.
+            ReminderAlarms.cancelLegacyServiceAlarm(this);
+            ReminderAlarms.startTimeline(this);
+            action = ACTION_TICK;
+        }
+
+        switch (action) {
+            case ACTION_START:
+                handleStart();
+                break;
+            case ACTION_TICK:
+            default:
+                handleTick(intent);
+                break;
+        }
     }
 
     /**
-     * Setup AlarmManager and PendingIntent
+     * Start the timer with the latest settings and play right away
      */
-    private void setupAlarmManager() {
-        alarmManager = (AlarmManager) getSystemService(Context.ALARM_SERVICE);
-        if (alarmManager == null) {
-            Log.e(TAG, "AlarmManager is null, cannot schedule alarms");
-            return;
-        }
-        
-        Intent alarmIntent = new Intent(this, RepeatReminderService.class);
-        alarmPendingIntent = PendingIntent.getService(this, 0, alarmIntent, PendingIntent.FLAG_IMMUTABLE);
+    private void handleStart() {
+        ReminderAlarms.startTimeline(this);
+        long now = System.currentTimeMillis();
+        playReminder(now, now, null);
     }
 
     /**
-     * Schedule the next alarm with the given repeat time
+     * Alarm fired (the receiver already armed the next slot): play once, then stop
      */
-    private void scheduleNextAlarm() {
-        if (alarmManager != null && alarmPendingIntent != null) {
-            int repeatTime = getRepeatTime();
-            scheduleAlarm(repeatTime);
-        } else {
-            Log.e(TAG, "Failed to schedule next alarm - alarmManager or pendingIntent is null");
+    private void handleTick(Intent intent) {
+        if (state == State.PLAYING) {
+            Log.d(TAG, "Tick ignored, reminder still playing");
+            return;
         }
+        long now = System.currentTimeMillis();
+        playReminder(intent.getLongExtra(EXTRA_SCHEDULED_TIME, now), intent.getLongExtra(EXTRA_FIRED_AT, now),
+                intent.getStringExtra(EXTRA_NOTIFICATION_TYPE));
     }
 
     /**
-     * Schedule an alarm with the given delay
+     * Play the reminder for the slot once, with the given sound or the main reminder's
      */
-    private void scheduleAlarm(int delayMillis) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.add(Calendar.MILLISECOND, delayMillis);
-        
-        try {
-            scheduleExactAlarm(calendar.getTimeInMillis());
-            Log.d(TAG, "Exact alarm scheduled in: " + delayMillis + "ms (" + (delayMillis / 60000) + " minutes)");
-        } catch (SecurityException e) {
-            Log.w(TAG, "Exact alarm permission denied, using inexact alarm as fallback");
-            scheduleInexactAlarm(calendar.getTimeInMillis());
-            Log.d(TAG, "Inexact alarm scheduled in: " + delayMillis + "ms (" + (delayMillis / 60000) + " minutes)");
+    private void playReminder(long scheduledTime, long firedAt, @Nullable String notificationType) {
+        if (player == null) {
+            player = ReminderPlayer.getInstance(this);
+            player.setOnPlaybackCompleteListener(this::onPlaybackComplete);
         }
+        state = State.PLAYING;
+        player.playReminder(scheduledTime, firedAt, notificationType);
     }
 
     /**
-     * Schedule an exact alarm
+     * Playback finished (or was skipped): the job is done
      */
-    private void scheduleExactAlarm(long triggerTime) {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-            alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerTime, alarmPendingIntent);
-        } else {
-            alarmManager.setExact(AlarmManager.RTC_WAKEUP, triggerTime, alarmPendingIntent);
+    private void onPlaybackComplete() {
+        if (state == State.PLAYING) {
+            finishJob();
         }
     }
 
     /**
-     * Schedule an inexact alarm as fallback
+     * Leave the foreground and stop, unless a newer command arrived meanwhile
      */
-    private void scheduleInexactAlarm(long triggerTime) {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-            alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerTime, alarmPendingIntent);
-        } else {
-            alarmManager.set(AlarmManager.RTC_WAKEUP, triggerTime, alarmPendingIntent);
+    private void finishJob() {
+        state = State.IDLE;
+        if (handledStartId == latestStartId) {
+            stopForeground(true);
         }
+        stopSelf(handledStartId);
     }
 
     @Nullable
@@ -164,26 +175,24 @@ public class RepeatReminderService extends Service {
         super.onDestroy();
         Log.d(TAG, "Service destroyed");
         
-        cleanup();
+        ReminderWorker.post(this::cleanup);
     }
 
     /**
-     * Clean up resources
+     * Detach from the shared player without stopping it: a clip the alarm receiver or a newer
+     * command started keeps playing. The alarm chain is left untouched. Worker thread.
      */
     private void cleanup() {
         if (player != null) {
-            player.stopReminder();
-        }
-        
-        if (alarmManager != null && alarmPendingIntent != null) {
-            alarmManager.cancel(alarmPendingIntent);
+            player.setOnPlaybackCompleteListener(null);
+            player = null;
         }
         
-        isTimerRunning = false;
+        state = State.IDLE;
     }
 
     /**
-     * Create and start the foreground notification
+     * Create and start the foreground notification; main thread
      */
     private void createServiceNotification() {
         createNotificationChannel();
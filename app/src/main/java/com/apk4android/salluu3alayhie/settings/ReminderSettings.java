@@ -0,0 +1,244 @@
+package com.apk4android.salluu3alayhie.settings;
+
+import com.apk4android.salluu3alayhie.scheduler.DeliveryPolicy;
+import com.apk4android.salluu3alayhie.scheduler.ReminderProfile;
+import com.apk4android.salluu3alayhie.scheduler.ReminderScheduler;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of every reminder setting.
+ * Readers keep a reference to one snapshot and never see a half-applied update;
+ * changes are made through an {@link Editor} and published by {@link ReminderSettingsRepository}.
+ */
+public final class ReminderSettings {
+
+    public static final String NOTIFICATION_TYPE_VOICE = "Voice";
+    public static final String NOTIFICATION_TYPE_AYA = "Aya";
+    public static final String VISUAL_REMINDER_OVERLAY = "Overlay";
+    public static final String VISUAL_REMINDER_NOTIFICATION = "Notification";
+
+    // Optional profiles that run next to the main reminder, as bits of getExtraProfiles()
+    public static final int EXTRA_PROFILE_HOURLY_AYA = 1;
+    public static final int EXTRA_PROFILE_FRIDAY = 1 << 1;
+
+    public static final String PROFILE_MAIN = "main";
+    public static final String PROFILE_HOURLY_AYA = "hourlyAya";
+    public static final String PROFILE_FRIDAY = "friday";
+    private static final long HOUR_MILLIS = 60 * 60 * 1000L;
+    private static final long FRIDAY_INTERVAL_MILLIS = 30 * 60 * 1000L;
+
+    public static final ReminderSettings DEFAULTS = new ReminderSettings(
+            (int) ReminderScheduler.DEFAULT_INTERVAL_MILLIS, NOTIFICATION_TYPE_VOICE, false,
+            DeliveryPolicy.EXACT, VISUAL_REMINDER_OVERLAY, false, 0L, 0, 0L, null);
+
+    private final int repeatEveryMillis;
+    private final String notificationType;
+    private final boolean alignToClock;
+    private final DeliveryPolicy deliveryPolicy;
+    private final String visualReminder;
+    private final boolean timerActive;
+    private final long anchorTimeMillis;
+    private final int extraProfiles;
+    private final long deferredSlotMillis;
+    private final String deferredNotificationType;
+
+    ReminderSettings(int repeatEveryMillis, String notificationType, boolean alignToClock,
+                     DeliveryPolicy deliveryPolicy, String visualReminder,
+                     boolean timerActive, long anchorTimeMillis, int extraProfiles,
+                     long deferredSlotMillis, String deferredNotificationType) {
+        this.repeatEveryMillis = repeatEveryMillis;
+        this.notificationType = notificationType;
+        this.alignToClock = alignToClock;
+        this.deliveryPolicy = deliveryPolicy;
+        this.visualReminder = visualReminder;
+        this.timerActive = timerActive;
+        this.anchorTimeMillis = anchorTimeMillis;
+        this.extraProfiles = extraProfiles;
+        this.deferredSlotMillis = deferredSlotMillis;
+        this.deferredNotificationType = deferredNotificationType;
+    }
+
+    public int getRepeatEveryMillis() {
+        return repeatEveryMillis;
+    }
+
+    public String getNotificationType() {
+        return notificationType;
+    }
+
+    public boolean isAyaReminder() {
+        return NOTIFICATION_TYPE_AYA.equals(notificationType);
+    }
+
+    public boolean isAlignToClock() {
+        return alignToClock;
+    }
+
+    public DeliveryPolicy getDeliveryPolicy() {
+        return deliveryPolicy;
+    }
+
+    public String getVisualReminder() {
+        return visualReminder;
+    }
+
+    public boolean isNotificationVisualReminder() {
+        return VISUAL_REMINDER_NOTIFICATION.equals(visualReminder);
+    }
+
+    public boolean isTimerActive() {
+        return timerActive;
+    }
+
+    /**
+     * Slot timeline anchor, 0 when no timeline was ever started
+     */
+    public long getAnchorTimeMillis() {
+        return anchorTimeMillis;
+    }
+
+    /**
+     * Enabled optional profiles, a mask of the EXTRA_PROFILE_ bits
+     */
+    public int getExtraProfiles() {
+        return extraProfiles;
+    }
+
+    public boolean isExtraProfileEnabled(int profile) {
+        return (extraProfiles & profile) != 0;
+    }
+
+    /**
+     * Newest slot whose sound was deferred by a call or silent mode and not replayed yet, 0 if none
+     */
+    public long getDeferredSlotMillis() {
+        return deferredSlotMillis;
+    }
+
+    public boolean hasDeferredReminder() {
+        return deferredSlotMillis > 0;
+    }
+
+    /**
+     * Sound of the deferred reminder, null for the main reminder's
+     */
+    public String getDeferredNotificationType() {
+        return deferredNotificationType;
+    }
+
+    /**
+     * Every active reminder profile in priority order: the enabled optional profiles first,
+     * then the main reminder on its saved timeline
+     */
+    public List<ReminderProfile> getProfiles() {
+        List<ReminderProfile> profiles = new ArrayList<>(3);
+        if (isExtraProfileEnabled(EXTRA_PROFILE_FRIDAY)) {
+            profiles.add(new ReminderProfile(PROFILE_FRIDAY, NOTIFICATION_TYPE_AYA, FRIDAY_INTERVAL_MILLIS,
+                    ReminderProfile.ANCHOR_LOCAL_MIDNIGHT, ReminderProfile.dayBit(Calendar.FRIDAY)));
+        }
+        if (isExtraProfileEnabled(EXTRA_PROFILE_HOURLY_AYA)) {
+            profiles.add(new ReminderProfile(PROFILE_HOURLY_AYA, NOTIFICATION_TYPE_AYA, HOUR_MILLIS,
+                    ReminderProfile.ANCHOR_LOCAL_MIDNIGHT, ReminderProfile.ALL_DAYS));
+        }
+        profiles.add(new ReminderProfile(PROFILE_MAIN, notificationType, repeatEveryMillis,
+                anchorTimeMillis > 0 ? anchorTimeMillis : ReminderProfile.ANCHOR_LOCAL_MIDNIGHT,
+                ReminderProfile.ALL_DAYS));
+        return Collections.unmodifiableList(profiles);
+    }
+
+    /**
+     * Set of changes to apply together; only the fields that were set are changed, so
+     * concurrent edits of different fields do not overwrite each other
+     */
+    public static final class Editor {
+        private Integer repeatEveryMillis;
+        private String notificationType;
+        private Boolean alignToClock;
+        private DeliveryPolicy deliveryPolicy;
+        private String visualReminder;
+        private Boolean timerActive;
+        private Long anchorTimeMillis;
+        private Integer extraProfiles;
+        private boolean deferredReminderSet;
+        private long deferredSlotMillis;
+        private String deferredNotificationType;
+
+        public Editor setRepeatEveryMillis(int repeatEveryMillis) {
+            if (repeatEveryMillis <= 0) {
+                throw new IllegalArgumentException("Interval must be positive: " + repeatEveryMillis);
+            }
+            this.repeatEveryMillis = repeatEveryMillis;
+            return this;
+        }
+
+        public Editor setNotificationType(String notificationType) {
+            this.notificationType = notificationType;
+            return this;
+        }
+
+        public Editor setAlignToClock(boolean alignToClock) {
+            this.alignToClock = alignToClock;
+            return this;
+        }
+
+        public Editor setDeliveryPolicy(DeliveryPolicy deliveryPolicy) {
+            this.deliveryPolicy = deliveryPolicy;
+            return this;
+        }
+
+        public Editor setVisualReminder(String visualReminder) {
+            this.visualReminder = visualReminder;
+            return this;
+        }
+
+        public Editor setTimerActive(boolean timerActive) {
+            this.timerActive = timerActive;
+            return this;
+        }
+
+        public Editor setAnchorTimeMillis(long anchorTimeMillis) {
+            this.anchorTimeMillis = anchorTimeMillis;
+            return this;
+        }
+
+        public Editor setExtraProfiles(int extraProfiles) {
+            this.extraProfiles = extraProfiles;
+            return this;
+        }
+
+        /**
+         * Remember a deferred reminder; a null notificationType replays the main reminder's sound
+         */
+        public Editor setDeferredReminder(long slotMillis, String notificationType) {
+            this.deferredReminderSet = true;
+            this.deferredSlotMillis = slotMillis;
+            this.deferredNotificationType = notificationType;
+            return this;
+        }
+
+        public Editor clearDeferredReminder() {
+            return setDeferredReminder(0L, null);
+        }
+
+        /**
+         * New snapshot with this editor's changes applied on top of the base
+         */
+        public ReminderSettings applyTo(ReminderSettings base) {
+            return new ReminderSettings(
+                    repeatEveryMillis != null ? repeatEveryMillis : base.repeatEveryMillis,
+                    notificationType != null ? notificationType : base.notificationType,
+                    alignToClock != null ? alignToClock : base.alignToClock,
+                    deliveryPolicy != null ? deliveryPolicy : base.deliveryPolicy,
+                    visualReminder != null ? visualReminder : base.visualReminder,
+                    timerActive != null ? timerActive : base.timerActive,
+                    anchorTimeMillis != null ? anchorTimeMillis : base.anchorTimeMillis,
+                    extraProfiles != null ? extraProfiles : base.extraProfiles,
+                    deferredReminderSet ? deferredSlotMillis : base.deferredSlotMillis,
+                    deferredReminderSet ? deferredNotificationType : base.deferredNotificationType);
+        }
+    }
+}
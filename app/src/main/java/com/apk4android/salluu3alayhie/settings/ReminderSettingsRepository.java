@@ -0,0 +1,143 @@
+package com.apk4android.salluu3alayhie.settings;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.apk4android.salluu3alayhie.common.ReminderWorker;
+import com.apk4android.salluu3alayhie.scheduler.DeliveryPolicy;
+import com.apk4android.salluu3alayhie.scheduler.ReminderScheduler;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Single owner of the reminder settings.
+ * The preferences file is read once per process into an immutable {@link ReminderSettings}
+ * snapshot; afterwards every reader (UI, alarm receiver, boot receiver, playback) uses the
+ * in-memory snapshot, and updates are published atomically and persisted on the reminder worker.
+ */
+public final class ReminderSettingsRepository {
+
+    private static final String TAG = "ReminderSettings";
+
+    // Same file and keys as earlier versions, so existing settings carry over
+    private static final String PREF_NAME = "setTimes";
+    private static final String KEY_REPEAT_EVERY = "repeatEvery";
+    private static final String KEY_NOTIFICATION_TYPE = "TypeOfNotification";
+    private static final String KEY_ALIGN_TO_CLOCK = "alignToClock";
+    private static final String KEY_DELIVERY_MODE = "deliveryMode";
+    private static final String KEY_WINDOW_TOLERANCE = "windowTolerance";
+    private static final String KEY_VISUAL_REMINDER = "visualReminder";
+    private static final String KEY_TIMER_ACTIVE = "timerActive";
+    private static final String KEY_ANCHOR_TIME = "anchorTime";
+    private static final String KEY_EXTRA_PROFILES = "extraProfiles";
+    private static final String KEY_DEFERRED_SLOT = "deferredSlot";
+    private static final String KEY_DEFERRED_TYPE = "deferredType";
+    private static final String DELIVERY_MODE_EXACT = "Exact";
+    private static final String DELIVERY_MODE_WINDOW = "Window";
+
+    private static ReminderSettingsRepository instance;
+
+    /**
+     * Notified on the thread that applied the change
+     */
+    public interface Listener {
+        void onSettingsChanged(@NonNull ReminderSettings settings);
+    }
+
+    private final SharedPreferences sharedPreferences;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile ReminderSettings settings;
+
+    private ReminderSettingsRepository(Context context) {
+        this.sharedPreferences = context.getApplicationContext().getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        this.settings = load(sharedPreferences);
+    }
+
+    public static synchronized ReminderSettingsRepository getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new ReminderSettingsRepository(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Current snapshot; never touches disk
+     */
+    @NonNull
+    public ReminderSettings get() {
+        return settings;
+    }
+
+    /**
+     * Apply all changes of the editor as one update, then persist them in the background
+     */
+    @NonNull
+    public ReminderSettings apply(@NonNull ReminderSettings.Editor editor) {
+        ReminderSettings updated;
+        synchronized (this) {
+            updated = editor.applyTo(settings);
+            settings = updated;
+            // Queued under the lock so snapshots reach disk in publish order
+            final ReminderSettings toPersist = updated;
+            ReminderWorker.post(() -> persist(toPersist));
+        }
+        for (Listener listener : listeners) {
+            listener.onSettingsChanged(updated);
+        }
+        return updated;
+    }
+
+    public void addListener(@NonNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private static ReminderSettings load(SharedPreferences sharedPreferences) {
+        ReminderSettings defaults = ReminderSettings.DEFAULTS;
+        DeliveryPolicy deliveryPolicy = DELIVERY_MODE_WINDOW.equals(sharedPreferences.getString(KEY_DELIVERY_MODE, DELIVERY_MODE_EXACT))
+                ? DeliveryPolicy.windowed(sharedPreferences.getInt(KEY_WINDOW_TOLERANCE, 0))
+                : DeliveryPolicy.EXACT;
+        int repeatEvery = sharedPreferences.getInt(KEY_REPEAT_EVERY, defaults.getRepeatEveryMillis());
+        return new ReminderSettings(
+                repeatEvery > 0 ? repeatEvery : (int) ReminderScheduler.DEFAULT_INTERVAL_MILLIS,
+                sharedPreferences.getString(KEY_NOTIFICATION_TYPE, defaults.getNotificationType()),
+                sharedPreferences.getBoolean(KEY_ALIGN_TO_CLOCK, defaults.isAlignToClock()),
+                deliveryPolicy,
+                sharedPreferences.getString(KEY_VISUAL_REMINDER, defaults.getVisualReminder()),
+                sharedPreferences.getBoolean(KEY_TIMER_ACTIVE, defaults.isTimerActive()),
+                sharedPreferences.getLong(KEY_ANCHOR_TIME, defaults.getAnchorTimeMillis()),
+                sharedPreferences.getInt(KEY_EXTRA_PROFILES, defaults.getExtraProfiles()),
+                sharedPreferences.getLong(KEY_DEFERRED_SLOT, defaults.getDeferredSlotMillis()),
+                sharedPreferences.getString(KEY_DEFERRED_TYPE, defaults.getDeferredNotificationType()));
+    }
+
+    /**
+     * Write a whole snapshot; runs on the reminder worker, in publish order
+     */
+    private void persist(ReminderSettings snapshot) {
+        DeliveryPolicy deliveryPolicy = snapshot.getDeliveryPolicy();
+        boolean committed = sharedPreferences.edit()
+                .putInt(KEY_REPEAT_EVERY, snapshot.getRepeatEveryMillis())
+                .putString(KEY_NOTIFICATION_TYPE, snapshot.getNotificationType())
+                .putBoolean(KEY_ALIGN_TO_CLOCK, snapshot.isAlignToClock())
+                .putString(KEY_DELIVERY_MODE, deliveryPolicy.isExact() ? DELIVERY_MODE_EXACT : DELIVERY_MODE_WINDOW)
+                .putInt(KEY_WINDOW_TOLERANCE, (int) deliveryPolicy.getToleranceMillis())
+                .putString(KEY_VISUAL_REMINDER, snapshot.getVisualReminder())
+                .putBoolean(KEY_TIMER_ACTIVE, snapshot.isTimerActive())
+                .putLong(KEY_ANCHOR_TIME, snapshot.getAnchorTimeMillis())
+                .putInt(KEY_EXTRA_PROFILES, snapshot.getExtraProfiles())
+                .putLong(KEY_DEFERRED_SLOT, snapshot.getDeferredSlotMillis())
+                .putString(KEY_DEFERRED_TYPE, snapshot.getDeferredNotificationType())
+                .commit();
+        if (!committed) {
+            Log.e(TAG, "Failed to persist reminder settings");
+        }
+    }
+}
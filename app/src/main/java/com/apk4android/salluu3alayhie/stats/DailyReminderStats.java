@@ -0,0 +1,271 @@
+package com.apk4android.salluu3alayhie.stats;
+
+import com.apk4android.salluu3alayhie.history.ReminderHistoryLog;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Per-day reminder aggregates, kept in a small memory-mapped table of {@link #DAYS} rows.
+ * Each reminder outcome bumps a few counters of its day's row, so a summary over a year
+ * reads at most 365 rows instead of the ~100k raw history records behind them.
+ *
+ * A row holds the day (days since epoch in local time), the played/silent/skipped counts and
+ * a histogram of delivery lateness; medians are read from the histogram, to bucket precision.
+ * Rows are reused round-robin, a row whose day does not match is treated as empty.
+ */
+public final class DailyReminderStats implements Closeable {
+
+    /**
+     * Days retained, enough for a 365 day summary plus slack
+     */
+    public static final int DAYS = 400;
+
+    /**
+     * Lateness of a reminder without a known slot: counted, but kept out of the histogram
+     */
+    public static final long NO_LATENESS = -1;
+
+    /**
+     * Upper bounds of the lateness buckets; the last bucket is open-ended
+     */
+    static final long[] LATENESS_BUCKET_MILLIS = {
+            1_000, 2_000, 5_000, 10_000, 30_000, 60_000, 2 * 60_000, 5 * 60_000, 10 * 60_000, 30 * 60_000, 60 * 60_000
+    };
+
+    private static final int MAGIC = 0x52445331; // "RDS1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int BUCKETS = LATENESS_BUCKET_MILLIS.length + 1;
+    private static final int OFFSET_PLAYED = 4;
+    private static final int OFFSET_SILENT = 8;
+    private static final int OFFSET_SKIPPED = 12;
+    private static final int OFFSET_BUCKETS = 16;
+    private static final int ROW_SIZE = OFFSET_BUCKETS + BUCKETS * 4;
+    private static final long FILE_SIZE = HEADER_SIZE + (long) DAYS * ROW_SIZE;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer buffer;
+
+    private DailyReminderStats(RandomAccessFile file, MappedByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Open the table, creating (or resetting an unreadable) file
+     */
+    public static DailyReminderStats open(File path) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(path, "rw");
+        try {
+            boolean valid = file.length() == FILE_SIZE && file.readInt() == MAGIC && file.readInt() == VERSION;
+            if (!valid) {
+                file.setLength(0);
+                file.setLength(FILE_SIZE);
+            }
+            MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (!valid) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                // Day 0 (1970-01-01) never matches a real reminder day, so zeroed rows read as empty
+            }
+            return new DailyReminderStats(file, buffer);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Local day of an instant, as days since the epoch
+     */
+    public static int epochDay(long millis, long zoneOffsetMillis) {
+        long local = millis + zoneOffsetMillis;
+        long day = local / DAY_MILLIS;
+        if (local < 0 && day * DAY_MILLIS != local) {
+            day--;
+        }
+        return (int) day;
+    }
+
+    /**
+     * Count one reminder outcome on the given day.
+     * Replays are not counted, their slot was already counted when it was deferred.
+     */
+    public synchronized void record(int epochDay, int outcome, long latenessMillis) {
+        int countOffset;
+        switch (outcome) {
+            case ReminderHistoryLog.OUTCOME_PLAYED:
+                countOffset = OFFSET_PLAYED;
+                break;
+            case ReminderHistoryLog.OUTCOME_VISUAL:
+                countOffset = OFFSET_SILENT;
+                break;
+            case ReminderHistoryLog.OUTCOME_SKIPPED_CALL:
+            case ReminderHistoryLog.OUTCOME_FAILED:
+                countOffset = OFFSET_SKIPPED;
+                break;
+            default:
+                return;
+        }
+        int row = rowFor(epochDay);
+        if (buffer.getInt(row) != epochDay) {
+            for (int offset = 0; offset < ROW_SIZE; offset += 4) {
+                buffer.putInt(row + offset, 0);
+            }
+            buffer.putInt(row, epochDay);
+        }
+        increment(row + countOffset);
+        if (latenessMillis != NO_LATENESS) {
+            increment(row + OFFSET_BUCKETS + 4 * bucketOf(latenessMillis));
+        }
+    }
+
+    /**
+     * Totals over the given number of days ending with (and including) lastEpochDay
+     */
+    public synchronized Summary summarize(int lastEpochDay, int days) {
+        if (days <= 0 || days > DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + DAYS + ": " + days);
+        }
+        int played = 0;
+        int silent = 0;
+        int skipped = 0;
+        int activeDays = 0;
+        int[] buckets = new int[BUCKETS];
+        for (int day = lastEpochDay - days + 1; day <= lastEpochDay; day++) {
+            int row = rowFor(day);
+            if (buffer.getInt(row) != day) {
+                continue;
+            }
+            activeDays++;
+            played += buffer.getInt(row + OFFSET_PLAYED);
+            silent += buffer.getInt(row + OFFSET_SILENT);
+            skipped += buffer.getInt(row + OFFSET_SKIPPED);
+            for (int b = 0; b < BUCKETS; b++) {
+                buckets[b] += buffer.getInt(row + OFFSET_BUCKETS + 4 * b);
+            }
+        }
+        return new Summary(days, activeDays, played, silent, skipped, medianOf(buckets));
+    }
+
+    private int rowFor(int epochDay) {
+        int index = epochDay % DAYS;
+        if (index < 0) {
+            index += DAYS;
+        }
+        return HEADER_SIZE + index * ROW_SIZE;
+    }
+
+    private void increment(int offset) {
+        buffer.putInt(offset, buffer.getInt(offset) + 1);
+    }
+
+    static int bucketOf(long latenessMillis) {
+        for (int b = 0; b < LATENESS_BUCKET_MILLIS.length; b++) {
+            if (latenessMillis < LATENESS_BUCKET_MILLIS[b]) {
+                return b;
+            }
+        }
+        return LATENESS_BUCKET_MILLIS.length;
+    }
+
+    /**
+     * Upper bound of the bucket holding the median, or {@link Summary#NO_MEDIAN}
+     */
+    private static long medianOf(int[] buckets) {
+        long total = 0;
+        for (int count : buckets) {
+            total += count;
+        }
+        if (total == 0) {
+            return Summary.NO_MEDIAN;
+        }
+        long seen = 0;
+        for (int b = 0; b < buckets.length; b++) {
+            seen += buckets[b];
+            if (seen * 2 >= total) {
+                return b < LATENESS_BUCKET_MILLIS.length ? LATENESS_BUCKET_MILLIS[b] : Long.MAX_VALUE;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    /**
+     * Reminder totals over a range of days
+     */
+    public static final class Summary {
+
+        public static final long NO_MEDIAN = -1;
+
+        private final int days;
+        private final int activeDays;
+        private final int played;
+        private final int silent;
+        private final int skipped;
+        private final long medianLatenessMillis;
+
+        Summary(int days, int activeDays, int played, int silent, int skipped, long medianLatenessMillis) {
+            this.days = days;
+            this.activeDays = activeDays;
+            this.played = played;
+            this.silent = silent;
+            this.skipped = skipped;
+            this.medianLatenessMillis = medianLatenessMillis;
+        }
+
+        public int getDays() {
+            return days;
+        }
+
+        /**
+         * Days in the range with at least one reminder
+         */
+        public int getActiveDays() {
+            return activeDays;
+        }
+
+        public int getPlayed() {
+            return played;
+        }
+
+        public int getSilent() {
+            return silent;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public int getTotal() {
+            return played + silent + skipped;
+        }
+
+        /**
+         * Average reminders on days the reminder was running
+         */
+        public float getPerActiveDay() {
+            return activeDays == 0 ? 0f : getTotal() / (float) activeDays;
+        }
+
+        /**
+         * Median delivery lateness, rounded up to its histogram bucket;
+         * {@link Long#MAX_VALUE} when beyond the last bucket, {@link #NO_MEDIAN} without data
+         */
+        public long getMedianLatenessMillis() {
+            return medianLatenessMillis;
+        }
+    }
+}
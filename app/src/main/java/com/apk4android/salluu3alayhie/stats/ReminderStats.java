@@ -0,0 +1,105 @@
+package com.apk4android.salluu3alayhie.stats;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.apk4android.salluu3alayhie.common.ReminderWorker;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.TimeZone;
+
+/**
+ * Process-wide access to the daily reminder aggregates in app-private no-backup storage.
+ * Everything runs on the {@link ReminderWorker}: each reminder is counted in place right after
+ * its history append, with no task per reminder, and summaries are queued behind those writes,
+ * so the stats screen always agrees with the history log. The main thread never touches the table.
+ */
+public final class ReminderStats {
+
+    private static final String TAG = "ReminderStats";
+    private static final String FILE_NAME = "reminder_stats.bin";
+
+    private static DailyReminderStats stats;
+    private static boolean openFailed;
+    // TimeZone.getDefault() returns a fresh copy on every call; refreshed by onTimeZoneChanged()
+    private static TimeZone timeZone;
+
+    /**
+     * Receives the summaries on the main thread
+     */
+    public interface Callback {
+        void onStatsLoaded(@NonNull DailyReminderStats.Summary week,
+                           @NonNull DailyReminderStats.Summary month,
+                           @NonNull DailyReminderStats.Summary year);
+    }
+
+    private ReminderStats() {
+    }
+
+    /**
+     * Count one reminder outcome in its day's mapped row, in place and without allocating.
+     * Worker thread, right after the history append.
+     */
+    public static void record(@NonNull Context context, long scheduledMillis, long actualMillis, int outcome) {
+        DailyReminderStats table = getTable(context);
+        if (table != null) {
+            int day = DailyReminderStats.epochDay(actualMillis, getTimeZone().getOffset(actualMillis));
+            // Ticks armed by older versions carry no slot, so their lateness is unknown
+            long lateness = scheduledMillis > 0
+                    ? Math.max(0, actualMillis - scheduledMillis) : DailyReminderStats.NO_LATENESS;
+            table.record(day, outcome, lateness);
+        }
+    }
+
+    /**
+     * Pick up the new default time zone for day boundaries; worker thread
+     */
+    public static void onTimeZoneChanged() {
+        timeZone = TimeZone.getDefault();
+    }
+
+    private static TimeZone getTimeZone() {
+        if (timeZone == null) {
+            timeZone = TimeZone.getDefault();
+        }
+        return timeZone;
+    }
+
+    /**
+     * Summarize the last 7, 30 and 365 days on the worker; nothing is delivered if the table cannot be opened
+     */
+    public static void load(@NonNull Context context, @NonNull Callback callback) {
+        final Context appContext = context.getApplicationContext();
+        ReminderWorker.post(() -> {
+            DailyReminderStats table = getTable(appContext);
+            if (table == null) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            int today = DailyReminderStats.epochDay(now, getTimeZone().getOffset(now));
+            DailyReminderStats.Summary week = table.summarize(today, 7);
+            DailyReminderStats.Summary month = table.summarize(today, 30);
+            DailyReminderStats.Summary year = table.summarize(today, 365);
+            ReminderWorker.runOnMain(() -> callback.onStatsLoaded(week, month, year));
+        });
+    }
+
+    /**
+     * Shared table, opened on first use on the worker; null if the file cannot be mapped
+     */
+    private static DailyReminderStats getTable(Context context) {
+        if (stats == null && !openFailed) {
+            File file = new File(context.getApplicationContext().getNoBackupFilesDir(), FILE_NAME);
+            try {
+                stats = DailyReminderStats.open(file);
+            } catch (IOException e) {
+                Log.e(TAG, "Cannot open reminder stats", e);
+                openFailed = true;
+            }
+        }
+        return stats;
+    }
+}
@@ -1,12 +1,14 @@
 package com.apk4android.salluu3alayhie.ui;
 
 import android.Manifest;
+import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.View;
+import android.widget.CheckBox;
 import android.widget.RadioButton;
 import android.widget.Toast;
 
@@ -14,10 +16,18 @@ import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AlertDialog;
 import androidx.core.content.ContextCompat;
+import androidx.core.splashscreen.SplashScreen;
 
 import com.apk4android.salluu3alayhie.R;
 import com.apk4android.salluu3alayhie.common.BaseActivity;
+import com.apk4android.salluu3alayhie.common.ReminderWorker;
+import com.apk4android.salluu3alayhie.scheduler.DeliveryPolicy;
+import com.apk4android.salluu3alayhie.scheduler.ReminderAlarms;
 import com.apk4android.salluu3alayhie.services.RepeatReminderService;
+import com.apk4android.salluu3alayhie.settings.ReminderSettings;
+import com.apk4android.salluu3alayhie.settings.ReminderSettingsRepository;
+import com.apk4android.salluu3alayhie.utils.ReminderPlayer;
+import com.apk4android.salluu3alayhie.utils.ToastStrategy;
 import com.apk4android.salluu3alayhie.utils.Utils;
 
 import java.util.ArrayList;
@@ -30,10 +40,16 @@ import java.util.List;
 public class MainActivity extends BaseActivity {
 
     private static final String TAG = "MainActivity";
+    private static final int WINDOW_TOLERANCE_SHORT = 30 * 1000;
+    private static final int WINDOW_TOLERANCE_LONG = 2 * Utils.MIN1;
     
     // UI Components
     private RadioButton rb5Min, rb10Min, rb15Min, rb20Min, rb25Min, rb30Min;
     private RadioButton rbVoice, rbAya;
+    private CheckBox cbAlignToClock;
+    private RadioButton rbDeliveryExact, rbDelivery30Sec, rbDelivery2Min;
+    private RadioButton rbVisualOverlay, rbVisualNotification;
+    private CheckBox cbHourlyAya, cbFridayAya;
     
     // Permission request launcher
     private final ActivityResultLauncher<String[]> requestMultiplePermissionsLauncher =
@@ -44,6 +60,8 @@ public class MainActivity extends BaseActivity {
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        // Splash stays up only until the first frame is drawn
+        SplashScreen.installSplashScreen(this);
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
         initViews();
@@ -55,12 +73,17 @@ public class MainActivity extends BaseActivity {
         super.onResume();
         // Check exact alarm permission when app resumes (e.g., after returning from Settings)
         checkExactAlarmPermission();
+        // The overlay permission may have changed in Settings
+        ToastStrategy.invalidate();
     }
 
     @Override
     public void initViews() {
         initTimerRadioButtons();
         initNotificationRadioButtons();
+        initDeliveryRadioButtons();
+        initVisualReminderRadioButtons();
+        initExtraProfileCheckBoxes();
     }
 
     @Override
@@ -79,6 +102,8 @@ public class MainActivity extends BaseActivity {
         rb20Min = findViewById(R.id.radio20Min);
         rb25Min = findViewById(R.id.radio25Min);
         rb30Min = findViewById(R.id.radio30Min);
+        cbAlignToClock = findViewById(R.id.cbAlignToClock);
+        cbAlignToClock.setChecked(getSettingsRepository().get().isAlignToClock());
     }
 
     /**
@@ -89,20 +114,109 @@ public class MainActivity extends BaseActivity {
         rbAya = findViewById(R.id.rbAya);
     }
 
+    /**
+     * Initialize delivery mode radio buttons from the saved policy
+     */
+    private void initDeliveryRadioButtons() {
+        rbDeliveryExact = findViewById(R.id.rbDeliveryExact);
+        rbDelivery30Sec = findViewById(R.id.rbDelivery30Sec);
+        rbDelivery2Min = findViewById(R.id.rbDelivery2Min);
+
+        DeliveryPolicy policy = getSettingsRepository().get().getDeliveryPolicy();
+        if (policy.isExact()) {
+            rbDeliveryExact.setChecked(true);
+        } else if (policy.getToleranceMillis() <= WINDOW_TOLERANCE_SHORT) {
+            rbDelivery30Sec.setChecked(true);
+        } else {
+            rbDelivery2Min.setChecked(true);
+        }
+    }
+
+    /**
+     * Initialize the optional reminder profiles from the saved choice; changes apply right away
+     */
+    private void initExtraProfileCheckBoxes() {
+        cbHourlyAya = findViewById(R.id.cbHourlyAya);
+        cbFridayAya = findViewById(R.id.cbFridayAya);
+
+        ReminderSettings settings = getSettingsRepository().get();
+        cbHourlyAya.setChecked(settings.isExtraProfileEnabled(ReminderSettings.EXTRA_PROFILE_HOURLY_AYA));
+        cbFridayAya.setChecked(settings.isExtraProfileEnabled(ReminderSettings.EXTRA_PROFILE_FRIDAY));
+
+        cbHourlyAya.setOnCheckedChangeListener((buttonView, isChecked) ->
+                setExtraProfileEnabled(ReminderSettings.EXTRA_PROFILE_HOURLY_AYA, isChecked));
+        cbFridayAya.setOnCheckedChangeListener((buttonView, isChecked) ->
+                setExtraProfileEnabled(ReminderSettings.EXTRA_PROFILE_FRIDAY, isChecked));
+    }
+
+    /**
+     * Save an optional profile and, if the timer is running, re-arm for the new earliest slot
+     */
+    private void setExtraProfileEnabled(int profile, boolean enabled) {
+        int extraProfiles = getSettingsRepository().get().getExtraProfiles();
+        extraProfiles = enabled ? extraProfiles | profile : extraProfiles & ~profile;
+        ReminderSettings settings = getSettingsRepository().apply(new ReminderSettings.Editor()
+                .setExtraProfiles(extraProfiles));
+        Log.d(TAG, "Extra reminder profiles: " + extraProfiles);
+        if (settings.isTimerActive()) {
+            Context appContext = getApplicationContext();
+            ReminderWorker.post(() -> ReminderAlarms.armNextSlot(appContext));
+        }
+    }
+
+    /**
+     * Initialize visual reminder radio buttons from the saved choice
+     */
+    private void initVisualReminderRadioButtons() {
+        rbVisualOverlay = findViewById(R.id.rbVisualOverlay);
+        rbVisualNotification = findViewById(R.id.rbVisualNotification);
+
+        if (isNotificationVisualReminder()) {
+            rbVisualNotification.setChecked(true);
+        } else {
+            rbVisualOverlay.setChecked(true);
+        }
+
+        rbVisualOverlay.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            if (isChecked) {
+                getSettingsRepository().apply(new ReminderSettings.Editor()
+                        .setVisualReminder(ReminderSettings.VISUAL_REMINDER_OVERLAY));
+                Log.d(TAG, "Visual reminder set to Overlay");
+            }
+        });
+
+        rbVisualNotification.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            if (isChecked) {
+                getSettingsRepository().apply(new ReminderSettings.Editor()
+                        .setVisualReminder(ReminderSettings.VISUAL_REMINDER_NOTIFICATION));
+                Log.d(TAG, "Visual reminder set to Notification");
+            }
+        });
+    }
+
+    /**
+     * Whether silent reminders are shown as a heads-up notification rather than an overlay
+     */
+    private boolean isNotificationVisualReminder() {
+        return getSettingsRepository().get().isNotificationVisualReminder();
+    }
+
     /**
      * Setup notification type change listeners
      */
     private void setupNotificationTypeListeners() {
         rbAya.setOnCheckedChangeListener((buttonView, isChecked) -> {
             if (isChecked) {
-                Utils.getSPEditor().putString("TypeOfNotification", "Aya").apply();
+                getSettingsRepository().apply(new ReminderSettings.Editor()
+                        .setNotificationType(ReminderSettings.NOTIFICATION_TYPE_AYA));
                 Log.d(TAG, "Notification type set to Aya");
             }
         });
 
         rbVoice.setOnCheckedChangeListener((buttonView, isChecked) -> {
             if (isChecked) {
-                Utils.getSPEditor().putString("TypeOfNotification", "Voice").apply();
+                getSettingsRepository().apply(new ReminderSettings.Editor()
+                        .setNotificationType(ReminderSettings.NOTIFICATION_TYPE_VOICE));
                 Log.d(TAG, "Notification type set to Voice");
             }
         });
@@ -152,7 +266,13 @@ public class MainActivity extends BaseActivity {
      * Handle stop alarm button click
      */
     public void stopAlarm(View view) {
-        stopService(new Intent(this, RepeatReminderService.class));
+        // Straight to the worker: starting the service just to stop it could bring it up in the
+        // foreground for nothing, or be refused while the app is backgrounded
+        Context appContext = getApplicationContext();
+        ReminderWorker.post(() -> {
+            ReminderAlarms.stopTimeline(appContext);
+            ReminderPlayer.getInstance(appContext).stopReminder();
+        });
         Utils.showWindowManagerToast(this, getString(R.string.timer_stopped), Toast.LENGTH_LONG);
         Log.d(TAG, "Timer stopped");
     }
@@ -164,6 +284,13 @@ public class MainActivity extends BaseActivity {
         openAbout();
     }
 
+    /**
+     * Handle statistics button click
+     */
+    public void openStats(View view) {
+        startActivity(new Intent(this, StatsActivity.class));
+    }
+
     /**
      * Handle share button click
      */
@@ -188,7 +315,23 @@ public class MainActivity extends BaseActivity {
      * Save timer preference to shared preferences
      */
     private void saveTimerPreference(int timerValue) {
-        Utils.getSPEditor().putInt("repeatEvery", timerValue).apply();
+        getSettingsRepository().apply(new ReminderSettings.Editor()
+                .setRepeatEveryMillis(timerValue)
+                .setAlignToClock(cbAlignToClock.isChecked())
+                .setDeliveryPolicy(DeliveryPolicy.windowed(getSelectedWindowTolerance())));
+    }
+
+    private ReminderSettingsRepository getSettingsRepository() {
+        return ReminderSettingsRepository.getInstance(this);
+    }
+
+    /**
+     * Get the selected delivery window tolerance in milliseconds, 0 for exact alarms
+     */
+    private int getSelectedWindowTolerance() {
+        if (rbDelivery30Sec.isChecked()) return WINDOW_TOLERANCE_SHORT;
+        if (rbDelivery2Min.isChecked()) return WINDOW_TOLERANCE_LONG;
+        return 0;
     }
 
     /**
@@ -381,8 +524,8 @@ public class MainActivity extends BaseActivity {
             permissionsToRequest.add(Manifest.permission.POST_NOTIFICATIONS);
         }
         
-        // Check SYSTEM_ALERT_WINDOW permission for floating toasts
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M && 
+        // Check SYSTEM_ALERT_WINDOW permission for floating toasts (not needed for notifications)
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M && !isNotificationVisualReminder() &&
             !android.provider.Settings.canDrawOverlays(this)) {
             // Note: SYSTEM_ALERT_WINDOW requires manual user action in settings
             // We'll show a dialog to guide the user
@@ -399,7 +542,11 @@ public class MainActivity extends BaseActivity {
         // Check if mobile is in silent mode
         checkSilentModeAndNotify();
         
-        Intent repeatServiceIntent = new Intent(this, RepeatReminderService.class);
+        // Decode the selected clip now so alarm-time playback needs no codec
+        ReminderPlayer.prefetch(this);
+        
+        Intent repeatServiceIntent = new Intent(this, RepeatReminderService.class)
+                .setAction(RepeatReminderService.ACTION_START);
         startService(repeatServiceIntent);
         Log.d(TAG, "Service started");
     }
@@ -0,0 +1,67 @@
+package com.apk4android.salluu3alayhie.ui;
+
+import android.os.Bundle;
+import android.widget.TextView;
+
+import com.apk4android.salluu3alayhie.R;
+import com.apk4android.salluu3alayhie.common.BaseActivity;
+import com.apk4android.salluu3alayhie.stats.DailyReminderStats;
+import com.apk4android.salluu3alayhie.stats.ReminderStats;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reminder statistics over the last 7, 30 and 365 days.
+ * Summaries are computed from the daily aggregates on the reminder worker, behind any pending
+ * writes, so opening is instant and the numbers match the history log.
+ */
+public class StatsActivity extends BaseActivity {
+
+    private TextView tvStatsWeek, tvStatsMonth, tvStatsYear;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_stats);
+        initViews();
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        ReminderStats.load(this, (week, month, year) -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            tvStatsWeek.setText(formatSummary(week));
+            tvStatsMonth.setText(formatSummary(month));
+            tvStatsYear.setText(formatSummary(year));
+        });
+    }
+
+    @Override
+    public void initViews() {
+        tvStatsWeek = findViewById(R.id.tvStatsWeek);
+        tvStatsMonth = findViewById(R.id.tvStatsMonth);
+        tvStatsYear = findViewById(R.id.tvStatsYear);
+    }
+
+    private String formatSummary(DailyReminderStats.Summary summary) {
+        return getString(R.string.stats_summary, summary.getTotal(), summary.getPerActiveDay(),
+                summary.getPlayed(), summary.getSilent(), summary.getSkipped(),
+                formatLateness(summary.getMedianLatenessMillis()));
+    }
+
+    private String formatLateness(long latenessMillis) {
+        if (latenessMillis == DailyReminderStats.Summary.NO_MEDIAN) {
+            return getString(R.string.stats_lateness_none);
+        }
+        if (latenessMillis == Long.MAX_VALUE) {
+            return getString(R.string.stats_lateness_over_hour);
+        }
+        if (latenessMillis < TimeUnit.MINUTES.toMillis(1)) {
+            return getString(R.string.stats_lateness_seconds, (int) TimeUnit.MILLISECONDS.toSeconds(latenessMillis));
+        }
+        return getString(R.string.stats_lateness_minutes, (int) TimeUnit.MILLISECONDS.toMinutes(latenessMillis));
+    }
+}
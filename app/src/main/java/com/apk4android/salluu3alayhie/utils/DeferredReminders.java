@@ -0,0 +1,119 @@
+package com.apk4android.salluu3alayhie.utils;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.apk4android.salluu3alayhie.audio.AudioStateTracker;
+import com.apk4android.salluu3alayhie.common.ReminderWorker;
+import com.apk4android.salluu3alayhie.scheduler.PendingReminderQueue;
+import com.apk4android.salluu3alayhie.settings.ReminderSettings;
+import com.apk4android.salluu3alayhie.settings.ReminderSettingsRepository;
+
+/**
+ * Holds reminders that landed during a call or in silent/DND mode and replays them once
+ * the sound system is free again. Draining is driven by {@link AudioStateTracker} events,
+ * so no alarm or polling is spent waiting for the call to end; all pending reminders are
+ * coalesced into a single replay.
+ *
+ * The newest pending slot and its sound are kept in {@link ReminderSettings}, so a reminder
+ * deferred just before the process dies is restored on the next alarm tick or on boot.
+ */
+public final class DeferredReminders implements AudioStateTracker.Listener {
+
+    private static final String TAG = "DeferredReminders";
+
+    private static DeferredReminders instance;
+
+    private final Context context;
+    private final ReminderSettingsRepository repository;
+    private final PendingReminderQueue queue = new PendingReminderQueue();
+    private String notificationType;
+
+    private DeferredReminders(Context context) {
+        this.context = context.getApplicationContext();
+        this.repository = ReminderSettingsRepository.getInstance(context);
+        ReminderSettings settings = repository.get();
+        if (settings.hasDeferredReminder()) {
+            queue.offer(settings.getDeferredSlotMillis());
+            notificationType = settings.getDeferredNotificationType();
+            Log.d(TAG, "Restored deferred reminder for slot " + settings.getDeferredSlotMillis());
+        }
+    }
+
+    public static synchronized DeferredReminders getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new DeferredReminders(context);
+            AudioStateTracker.getInstance(context).addListener(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Remember a reminder that could not make a sound; a null notificationType replays the
+     * main reminder's sound
+     */
+    public synchronized void defer(long slotMillis, @Nullable String notificationType) {
+        queue.offer(slotMillis);
+        this.notificationType = notificationType;
+        repository.apply(new ReminderSettings.Editor().setDeferredReminder(slotMillis, notificationType));
+        Log.d(TAG, "Reminder deferred, " + queue.pendingCount() + " pending");
+    }
+
+    /**
+     * Replay what is pending right away if the sound system is free, e.g. after boot
+     */
+    public void replayIfIdle() {
+        if (!AudioStateTracker.getInstance(context).getSnapshot().isBusy()) {
+            replayPending();
+        }
+    }
+
+    /**
+     * Drop what is pending because a reminder that is about to sound covers it
+     */
+    public void coalesceInto(long slotMillis) {
+        PendingReminderQueue.Replay replay = take();
+        if (replay != null) {
+            Log.d(TAG, replay.getMissedCount() + " deferred reminder(s) coalesced into slot " + slotMillis);
+        }
+    }
+
+    @Override
+    public void onAudioStateChanged(@NonNull AudioStateTracker.Snapshot snapshot) {
+        if (!snapshot.isBusy()) {
+            replayPending();
+        }
+    }
+
+    private void replayPending() {
+        String replayType;
+        PendingReminderQueue.Replay replay;
+        synchronized (this) {
+            replayType = notificationType;
+            replay = take();
+        }
+        if (replay == null) {
+            return;
+        }
+        Log.d(TAG, "Sound system free, replaying " + replay.getMissedCount() + " deferred reminder(s) once");
+        // Held until the replayed clip completes, like a reminder fired by its alarm
+        ReminderWakeLock.getInstance(context).acquire(ReminderWakeLock.FIRE_TIMEOUT_MILLIS);
+        ReminderWorker.post(() -> ReminderPlayer.getInstance(context)
+                .replayReminder(replay.getNewestSlotMillis(), replayType));
+    }
+
+    /**
+     * Drain the queue and forget the saved pending reminder, or null if nothing is pending
+     */
+    private synchronized PendingReminderQueue.Replay take() {
+        PendingReminderQueue.Replay replay = queue.drain();
+        if (replay != null) {
+            notificationType = null;
+            repository.apply(new ReminderSettings.Editor().clearDeferredReminder());
+        }
+        return replay;
+    }
+}
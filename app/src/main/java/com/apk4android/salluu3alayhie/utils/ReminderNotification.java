@@ -0,0 +1,90 @@
+package com.apk4android.salluu3alayhie.utils;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+
+import com.apk4android.salluu3alayhie.R;
+import com.apk4android.salluu3alayhie.ui.MainActivity;
+
+/**
+ * Visual reminder delivered as a heads-up notification instead of an overlay window.
+ * Uses one high-importance channel and a single notification id that is updated in place
+ * and times out by itself, so it needs neither SYSTEM_ALERT_WINDOW nor a WindowManager
+ * round-trip per reminder.
+ */
+public final class ReminderNotification {
+
+    private static final String TAG = "ReminderNotification";
+    private static final String CHANNEL_ID = "PrayerReminderVisual";
+    private static final int NOTIFICATION_ID = 2; // 1 is the playback job's foreground notification
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private static boolean channelCreated;
+
+    private ReminderNotification() {
+    }
+
+    /**
+     * Post (or refresh) the heads-up reminder; false if notifications are blocked
+     */
+    public static boolean show(@NonNull Context context) {
+        NotificationManagerCompat manager = NotificationManagerCompat.from(context);
+        if (!manager.areNotificationsEnabled()) {
+            Log.w(TAG, "Notifications disabled, cannot show visual reminder");
+            return false;
+        }
+        createChannel(context);
+
+        PendingIntent contentIntent = PendingIntent.getActivity(context, 0,
+                new Intent(context, MainActivity.class), PendingIntent.FLAG_IMMUTABLE);
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.mipmap.ic_launcher)
+                .setContentTitle(context.getString(R.string.pray_on_muhammad))
+                .setContentText(context.getString(R.string.app_name))
+                .setContentIntent(contentIntent)
+                .setCategory(NotificationCompat.CATEGORY_REMINDER)
+                // Below API 26 heads-up needs high priority plus sound or vibration: an empty
+                // vibrate pattern makes it alerting without actually vibrating. Not setSilent(),
+                // which would stop it from peeking; the API 26+ channel is already silent.
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setVibrate(new long[]{0})
+                .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
+                .setAutoCancel(true)
+                .setTimeoutAfter(TIMEOUT_MILLIS);
+        try {
+            manager.notify(NOTIFICATION_ID, builder.build());
+            return true;
+        } catch (SecurityException e) {
+            Log.e(TAG, "POST_NOTIFICATIONS not granted", e);
+            return false;
+        }
+    }
+
+    /**
+     * High-importance channel so the reminder peeks in as a heads-up; the sound is the reminder clip
+     */
+    private static synchronized void createChannel(Context context) {
+        if (channelCreated || Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            return;
+        }
+        NotificationChannel channel = new NotificationChannel(CHANNEL_ID,
+                context.getString(R.string.visual_reminder_channel), NotificationManager.IMPORTANCE_HIGH);
+        channel.setSound(null, null);
+        channel.enableVibration(false);
+        channel.setShowBadge(false);
+        NotificationManager manager = context.getSystemService(NotificationManager.class);
+        if (manager != null) {
+            manager.createNotificationChannel(channel);
+            channelCreated = true;
+        }
+    }
+}
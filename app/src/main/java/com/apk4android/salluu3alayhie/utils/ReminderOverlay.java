@@ -0,0 +1,189 @@
+package com.apk4android.salluu3alayhie.utils;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.PixelFormat;
+import android.graphics.drawable.GradientDrawable;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.DisplayMetrics;
+import android.util.Log;
+import android.view.Gravity;
+import android.view.View;
+import android.view.WindowManager;
+import android.widget.ImageView;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+
+import com.apk4android.salluu3alayhie.R;
+
+/**
+ * Process-wide controller of the floating "toast" shown for reminders and in-app messages.
+ * The view and both window layout params are built once; each show only updates the text and
+ * attaches the same view, and a single main-looper handler detaches it again.
+ * Must be used from the main thread.
+ */
+public final class ReminderOverlay {
+
+    private static final String TAG = "ReminderOverlay";
+    private static final float TOP_OFFSET_RATIO = 0.08f; // 8% from top
+
+    private static ReminderOverlay instance;
+
+    private final Context context;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable hideRunnable = this::hide;
+    private View overlayView;
+    private TextView messageView;
+    private WindowManager.LayoutParams overlayParams;
+    private WindowManager.LayoutParams panelParams;
+    private WindowManager attachedWindowManager;
+    private WindowManager.LayoutParams attachedParams;
+
+    private ReminderOverlay(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    public static synchronized ReminderOverlay getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new ReminderOverlay(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Show the message above other apps (TYPE_APPLICATION_OVERLAY); needs SYSTEM_ALERT_WINDOW
+     */
+    public boolean showOverlay(@NonNull String message, long displayMillis) {
+        if (overlayParams == null) {
+            int type = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+                    ? WindowManager.LayoutParams.TYPE_APPLICATION_OVERLAY
+                    : WindowManager.LayoutParams.TYPE_PHONE;
+            overlayParams = createLayoutParams(type, WindowManager.LayoutParams.FLAG_LAYOUT_NO_LIMITS);
+        }
+        WindowManager windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+        return show(windowManager, overlayParams, message, displayMillis);
+    }
+
+    /**
+     * Show the message as a panel on top of the given activity's window
+     */
+    public boolean showInActivity(@NonNull Activity activity, @NonNull String message, long displayMillis) {
+        if (panelParams == null) {
+            panelParams = createLayoutParams(WindowManager.LayoutParams.TYPE_APPLICATION_PANEL, 0);
+        }
+        WindowManager windowManager = (WindowManager) activity.getSystemService(Context.WINDOW_SERVICE);
+        return show(windowManager, panelParams, message, displayMillis);
+    }
+
+    /**
+     * Detach the view if it is showing
+     */
+    public void hide() {
+        handler.removeCallbacks(hideRunnable);
+        if (attachedWindowManager == null) {
+            return;
+        }
+        try {
+            attachedWindowManager.removeViewImmediate(overlayView);
+            Log.d(TAG, "Overlay removed");
+        } catch (IllegalArgumentException e) {
+            // Window already gone, e.g. the activity was destroyed
+            Log.w(TAG, "Overlay was not attached", e);
+        }
+        attachedWindowManager = null;
+        attachedParams = null;
+    }
+
+    private boolean show(WindowManager windowManager, WindowManager.LayoutParams params,
+                         String message, long displayMillis) {
+        if (windowManager == null) {
+            Log.e(TAG, "WindowManager is null");
+            return false;
+        }
+        ensureView();
+        messageView.setText(message);
+        handler.removeCallbacks(hideRunnable);
+
+        if (attachedWindowManager != windowManager || attachedParams != params) {
+            hide();
+            // The window token is filled in from the activity on attach; never reuse a stale one
+            params.token = null;
+            params.y = (int) (context.getResources().getDisplayMetrics().heightPixels * TOP_OFFSET_RATIO);
+            try {
+                windowManager.addView(overlayView, params);
+            } catch (RuntimeException e) {
+                // BadTokenException or missing overlay permission
+                Log.e(TAG, "Cannot attach overlay", e);
+                return false;
+            }
+            attachedWindowManager = windowManager;
+            attachedParams = params;
+        }
+
+        handler.postDelayed(hideRunnable, displayMillis);
+        return true;
+    }
+
+    private static WindowManager.LayoutParams createLayoutParams(int type, int extraFlags) {
+        WindowManager.LayoutParams params = new WindowManager.LayoutParams(
+                WindowManager.LayoutParams.WRAP_CONTENT,
+                WindowManager.LayoutParams.WRAP_CONTENT,
+                type,
+                WindowManager.LayoutParams.FLAG_NOT_FOCUSABLE
+                        | WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE
+                        | WindowManager.LayoutParams.FLAG_LAYOUT_IN_SCREEN
+                        | extraFlags,
+                PixelFormat.TRANSLUCENT);
+        params.gravity = Gravity.TOP | Gravity.CENTER_HORIZONTAL;
+        params.x = 0;
+        return params;
+    }
+
+    /**
+     * Build the icon + text view once
+     */
+    private void ensureView() {
+        if (overlayView != null) {
+            return;
+        }
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+
+        LinearLayout container = new LinearLayout(context);
+        container.setOrientation(LinearLayout.HORIZONTAL);
+        container.setGravity(Gravity.CENTER_VERTICAL);
+
+        // Rounded background with a white border
+        GradientDrawable background = new GradientDrawable();
+        background.setShape(GradientDrawable.RECTANGLE);
+        background.setCornerRadius(24);
+        background.setColor(ContextCompat.getColor(context, R.color.colorPrimary));
+        background.setStroke(2, ContextCompat.getColor(context, android.R.color.white));
+        container.setBackground(background);
+
+        int padding = (int) (16 * metrics.density);
+        container.setPadding(padding, padding, padding, padding);
+
+        ImageView iconView = new ImageView(context);
+        iconView.setImageResource(R.mipmap.ic_launcher);
+        iconView.setScaleType(ImageView.ScaleType.FIT_CENTER);
+        int iconSize = (int) (24 * metrics.density);
+        LinearLayout.LayoutParams iconParams = new LinearLayout.LayoutParams(iconSize, iconSize);
+        iconParams.setMargins(0, 0, (int) (8 * metrics.density), 0);
+        container.addView(iconView, iconParams);
+
+        messageView = new TextView(context);
+        messageView.setTextColor(ContextCompat.getColor(context, android.R.color.white));
+        messageView.setTextSize(16);
+        messageView.setGravity(Gravity.CENTER_VERTICAL);
+        container.addView(messageView, new LinearLayout.LayoutParams(
+                LinearLayout.LayoutParams.WRAP_CONTENT,
+                LinearLayout.LayoutParams.WRAP_CONTENT));
+
+        overlayView = container;
+    }
+}
@@ -1,61 +1,158 @@
 package com.apk4android.salluu3alayhie.utils;
 
-import android.Manifest;
 import android.content.Context;
-import android.content.SharedPreferences;
-import android.content.pm.PackageManager;
 import android.media.AudioManager;
-import android.media.MediaPlayer;
-import android.os.Build;
-import android.telephony.TelephonyManager;
+import android.os.Handler;
 import android.util.Log;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
-import androidx.core.content.ContextCompat;
+import androidx.annotation.Nullable;
 
 import com.apk4android.salluu3alayhie.R;
+import com.apk4android.salluu3alayhie.audio.AudioBackend;
+import com.apk4android.salluu3alayhie.audio.AudioStateTracker;
+import com.apk4android.salluu3alayhie.audio.MediaPlayerBackend;
+import com.apk4android.salluu3alayhie.audio.PcmCache;
+import com.apk4android.salluu3alayhie.audio.PcmTrackBackend;
+import com.apk4android.salluu3alayhie.audio.SoundPoolBackend;
+import com.apk4android.salluu3alayhie.common.ReminderWorker;
+import com.apk4android.salluu3alayhie.history.ReminderHistory;
+import com.apk4android.salluu3alayhie.history.ReminderHistoryLog;
+import com.apk4android.salluu3alayhie.settings.ReminderSettings;
+import com.apk4android.salluu3alayhie.settings.ReminderSettingsRepository;
+
+import java.util.Arrays;
 
 /**
  * Handles audio playback for prayer reminders with proper audio focus management.
  * Supports both Quran verses and voice reminders with system state checking.
+ * The backend is picked from the clip length: short clips fire from a SoundPool, longer ones
+ * play from the pre-decoded PCM cache when available, with MediaPlayer as fallback.
+ * One instance lives per process and keeps its prepared players between closely spaced
+ * reminders; they are released once no reminder has played for the idle period.
+ *
+ * Threading: the player is owned by the {@link ReminderWorker} thread. It is created there,
+ * so the backends' completion callbacks arrive there as well, and every instance method must be
+ * called there; only the static helpers may be called from any thread.
  */
 public class ReminderPlayer {
     
     private static final String TAG = "ReminderPlayer";
-    private static final String DEFAULT_NOTIFICATION_TYPE = "Voice";
-    
+    public static final long DEFAULT_IDLE_RELEASE_MILLIS = 11 * 60 * 1000L; // outlives a 10 minute interval
+    private static final long UNKNOWN_CLIP_DURATION_MILLIS = 60 * 1000L; // bound when the clip is not decoded yet
+
+    private static ReminderPlayer instance;
+
     private final Context context;
-    private MediaPlayer mediaPlayer;
+    private final Handler handler = new Handler(ReminderWorker.getLooper());
+    private final Runnable idleRelease = this::releaseResources;
+    private long idleReleaseMillis = DEFAULT_IDLE_RELEASE_MILLIS;
+    private final AudioStateTracker audioStateTracker;
+    private final ReminderWakeLock wakeLock;
+    private final AudioBackend[] backends;
+    private AudioBackend activeBackend;
     private AudioManager audioManager;
     private OnPlaybackCompleteListener onPlaybackCompleteListener;
+    private Runnable pendingCompletion;
+    private String notificationType;
+    private long scheduledMillis;
+    private long firedAtMillis;
+    private int playedOutcome;
+    private boolean outcomeRecorded;
+    private int resourceId;
 
     public interface OnPlaybackCompleteListener {
         void onPlaybackComplete();
     }
 
-    public ReminderPlayer(@NonNull Context context) {
+    /**
+     * Process-wide player; prepared clips survive between reminders.
+     * Worker thread: the backends bind their callbacks to the creating thread's looper.
+     */
+    @NonNull
+    public static synchronized ReminderPlayer getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new ReminderPlayer(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private ReminderPlayer(@NonNull Context context) {
         this.context = context;
         this.audioManager = (AudioManager) context.getSystemService(Context.AUDIO_SERVICE);
+        this.audioStateTracker = AudioStateTracker.getInstance(context);
+        this.wakeLock = ReminderWakeLock.getInstance(context);
+        this.backends = new AudioBackend[] {
+                new SoundPoolBackend(context),
+                new PcmTrackBackend(context),
+                new MediaPlayerBackend(context)
+        };
         
         if (this.audioManager == null) {
             Log.e(TAG, "AudioManager is null, this may cause issues");
         }
     }
 
+    /**
+     * Worker thread; the listener is called on the worker
+     */
     public void setOnPlaybackCompleteListener(OnPlaybackCompleteListener listener) {
         this.onPlaybackCompleteListener = listener;
     }
 
     /**
-     * Start playing the prayer reminder audio
+     * How long prepared players are kept after the last reminder before being released. Worker thread.
      */
-    public void playReminder() {
+    public void setIdleReleaseMillis(long idleReleaseMillis) {
+        this.idleReleaseMillis = idleReleaseMillis;
+    }
+
+    /**
+     * Start playing the prayer reminder audio for the given slot, fired by its alarm at firedAtMillis.
+     * A null notificationType plays the main reminder's sound. Worker thread.
+     */
+    public void playReminder(long scheduledMillis, long firedAtMillis, @Nullable String notificationType) {
+        startReminder(scheduledMillis, firedAtMillis, notificationType, ReminderHistoryLog.OUTCOME_PLAYED, null);
+    }
+
+    /**
+     * Same as {@link #playReminder(long, long, String)}, running onComplete once this reminder is done,
+     * skipped, or replaced by a newer one. Worker thread; onComplete runs on the worker.
+     */
+    public void playReminder(long scheduledMillis, long firedAtMillis, @Nullable String notificationType,
+                             @NonNull Runnable onComplete) {
+        startReminder(scheduledMillis, firedAtMillis, notificationType, ReminderHistoryLog.OUTCOME_PLAYED, onComplete);
+    }
+
+    /**
+     * Play a reminder that was deferred during a call or silent mode, with its own sound
+     * (null for the main reminder's). Worker thread.
+     */
+    public void replayReminder(long slotMillis, @Nullable String notificationType) {
+        startReminder(slotMillis, System.currentTimeMillis(), notificationType, ReminderHistoryLog.OUTCOME_REPLAYED, null);
+    }
+
+    private void startReminder(long scheduledMillis, long firedAtMillis, String notificationType,
+                               int playedOutcome, Runnable onComplete) {
+        handler.removeCallbacks(idleRelease);
+        // A reminder still playing is cut short by this one
+        runPendingCompletion();
+        pendingCompletion = onComplete;
+        this.notificationType = notificationType;
+        this.scheduledMillis = scheduledMillis;
+        this.firedAtMillis = firedAtMillis;
+        this.playedOutcome = playedOutcome;
+        this.outcomeRecorded = false;
         if (!isSoundSystemBusy()) {
             playSoundOrAya();
         } else {
-            Log.d(TAG, "Sound system busy, showing toast instead");
-            showPrayerToast();
+            Log.d(TAG, "Sound system busy, showing toast and deferring the sound");
+            showSilentReminder(context);
+            DeferredReminders.getInstance(context).defer(scheduledMillis, notificationType);
+            recordOutcome(audioStateTracker.getSnapshot().isInCall()
+                    ? ReminderHistoryLog.OUTCOME_SKIPPED_CALL : ReminderHistoryLog.OUTCOME_VISUAL,
+                    ReminderHistoryLog.NO_LATENCY);
             notifyPlaybackComplete();
         }
     }
@@ -64,26 +161,82 @@ public class ReminderPlayer {
      * Play the selected audio (Quran verse or voice reminder)
      */
     private void playSoundOrAya() {
-        stopMediaPlayer();
+        stopActiveBackend();
         
-        String typeOfNotification = getTypeOfNotification();
+        String typeOfNotification = notificationType != null ? notificationType : getTypeOfNotification(context);
         Log.d(TAG, "Playing notification type: " + typeOfNotification);
         
-        int resourceId = getAudioResourceId(typeOfNotification);
-        mediaPlayer = MediaPlayer.create(context, resourceId);
+        resourceId = getAudioResourceId(typeOfNotification);
+        requestFocusForPlayback();
+        playFromBackend(0);
+    }
+
+    /**
+     * Hand the clip to the first backend, from the given position on, that accepts it
+     */
+    private void playFromBackend(int first) {
+        for (int i = first; i < backends.length; i++) {
+            AudioBackend backend = backends[i];
+            if (backend.play(resourceId, this::onBackendComplete, this::onBackendFailed)) {
+                activeBackend = backend;
+                Log.d(TAG, "Playing with " + backend.getClass().getSimpleName());
+                int latencyMillis = (int) (System.currentTimeMillis() - firedAtMillis);
+                Log.d(TAG, "Fire-to-sound latency: " + latencyMillis + "ms");
+                if (!outcomeRecorded) {
+                    recordOutcome(playedOutcome, latencyMillis);
+                }
+                long duration = PcmCache.getInstance(context).getDurationMillis(resourceId);
+                wakeLock.extendForClip(duration >= 0 ? duration : UNKNOWN_CLIP_DURATION_MILLIS);
+                return;
+            }
+        }
         
-        if (mediaPlayer != null) {
-            setupMediaPlayer();
-        } else {
-            Log.e(TAG, "Failed to create MediaPlayer");
-            notifyPlaybackComplete();
+        Log.e(TAG, "No audio backend could play the reminder");
+        if (!outcomeRecorded) {
+            recordOutcome(ReminderHistoryLog.OUTCOME_FAILED, ReminderHistoryLog.NO_LATENCY);
         }
+        releaseAudioFocus();
+        notifyPlaybackComplete();
+    }
+
+    /**
+     * Append the outcome of the current reminder to the history log
+     */
+    private void recordOutcome(int outcome, int latencyMillis) {
+        outcomeRecorded = true;
+        ReminderHistory.record(context, scheduledMillis, firedAtMillis, outcome, latencyMillis);
+    }
+
+    /**
+     * Duration of the clip for the notification type (null for the main reminder's),
+     * or -1 while it is not decoded yet. Any thread; may read the cache file header, so not on the main thread.
+     */
+    public static long getReminderClipDurationMillis(@NonNull Context context, @Nullable String notificationType) {
+        return PcmCache.getInstance(context).getDurationMillis(getAudioResourceId(
+                notificationType != null ? notificationType : getTypeOfNotification(context)));
     }
 
     /**
-     * Show prayer reminder toast with proper positioning
+     * Warm the PCM cache for the selected clip so reminders skip codec setup.
+     * Any thread; decoding runs on the cache's own thread.
      */
-    private void showPrayerToast() {
+    public static void prefetch(@NonNull Context context) {
+        PcmCache.getInstance(context).prefetch(getAudioResourceId(getTypeOfNotification(context)));
+    }
+
+    /**
+     * Silent reminder: show the heads-up notification or the prayer toast, as selected,
+     * without touching audio at all. Any thread; the UI work is done on the main thread.
+     */
+    public static void showSilentReminder(@NonNull Context context) {
+        ReminderWorker.runOnMain(() -> showSilentReminderNow(context));
+    }
+
+    private static void showSilentReminderNow(Context context) {
+        if (ReminderSettingsRepository.getInstance(context).get().isNotificationVisualReminder()
+                && ReminderNotification.show(context)) {
+            return;
+        }
         try {
             // Use the universal method that works from any context
             com.apk4android.salluu3alayhie.utils.Utils.showTopMiddleToastUniversal(
@@ -105,8 +258,8 @@ public class ReminderPlayer {
     /**
      * Get the audio resource ID based on notification type
      */
-    private int getAudioResourceId(String typeOfNotification) {
-        if ("Aya".equals(typeOfNotification)) {
+    private static int getAudioResourceId(String typeOfNotification) {
+        if (ReminderSettings.NOTIFICATION_TYPE_AYA.equals(typeOfNotification)) {
             return R.raw.ayasd;
         } else {
             return R.raw.voice;
@@ -114,21 +267,15 @@ public class ReminderPlayer {
     }
 
     /**
-     * Setup MediaPlayer with proper audio configuration
+     * Request audio focus before starting playback
      */
-    private void setupMediaPlayer() {
-        // Set audio stream to music to avoid interference with notifications
-        mediaPlayer.setAudioStreamType(AudioManager.STREAM_MUSIC);
-        
-        // Request audio focus
+    private void requestFocusForPlayback() {
         int result = requestAudioFocus();
         
         if (result == AudioManager.AUDIOFOCUS_REQUEST_GRANTED) {
             Log.d(TAG, "Audio focus granted");
-            setupPlaybackListeners();
         } else {
             Log.w(TAG, "Audio focus not granted, but will attempt playback");
-            setupPlaybackListeners();
         }
     }
 
@@ -145,7 +292,8 @@ public class ReminderPlayer {
             new AudioManager.OnAudioFocusChangeListener() {
                 @Override
                 public void onAudioFocusChange(int focusChange) {
-                    handleAudioFocusChange(focusChange);
+                    // Delivered on the main thread, the backends belong to the worker
+                    handler.post(() -> handleAudioFocusChange(focusChange));
                 }
             },
             AudioManager.STREAM_MUSIC,
@@ -161,40 +309,39 @@ public class ReminderPlayer {
             case AudioManager.AUDIOFOCUS_LOSS:
             case AudioManager.AUDIOFOCUS_LOSS_TRANSIENT:
                 Log.d(TAG, "Audio focus lost, pausing playback");
-                if (mediaPlayer != null && mediaPlayer.isPlaying()) {
-                    mediaPlayer.pause();
+                if (activeBackend != null) {
+                    activeBackend.pause();
                 }
                 break;
             case AudioManager.AUDIOFOCUS_GAIN:
                 Log.d(TAG, "Audio focus gained, resuming playback");
-                if (mediaPlayer != null && !mediaPlayer.isPlaying()) {
-                    mediaPlayer.start();
+                if (activeBackend != null) {
+                    activeBackend.resume();
                 }
                 break;
         }
     }
 
     /**
-     * Setup MediaPlayer listeners
+     * Active backend finished the clip (or failed mid-way)
      */
-    private void setupPlaybackListeners() {
-        mediaPlayer.setOnPreparedListener(mp -> {
-            Log.d(TAG, "MediaPlayer prepared, starting playback");
-            mp.start();
-        });
-        
-        mediaPlayer.setOnCompletionListener(mp -> {
-            Log.d(TAG, "Playback completed");
-            releaseAudioFocus();
-            notifyPlaybackComplete();
-        });
-        
-        mediaPlayer.setOnErrorListener((mp, what, extra) -> {
-            Log.e(TAG, "MediaPlayer error: what=" + what + ", extra=" + extra);
-            releaseAudioFocus();
-            notifyPlaybackComplete();
-            return true;
-        });
+    private void onBackendComplete() {
+        activeBackend = null;
+        releaseAudioFocus();
+        notifyPlaybackComplete();
+    }
+
+    /**
+     * Active backend accepted the clip but could not play it; the next backends get their turn
+     */
+    private void onBackendFailed() {
+        if (activeBackend == null) {
+            return;
+        }
+        int next = Arrays.asList(backends).indexOf(activeBackend) + 1;
+        Log.w(TAG, activeBackend.getClass().getSimpleName() + " failed, falling back");
+        activeBackend = null;
+        playFromBackend(next);
     }
 
     /**
@@ -209,102 +356,82 @@ public class ReminderPlayer {
     }
 
     /**
-     * Notify that playback is complete
+     * Notify that playback is complete (or was skipped) and let the CPU sleep again
      */
     private void notifyPlaybackComplete() {
+        wakeLock.release();
+        scheduleIdleRelease();
+        runPendingCompletion();
         if (onPlaybackCompleteListener != null) {
             onPlaybackCompleteListener.onPlaybackComplete();
         }
     }
 
+    private void runPendingCompletion() {
+        Runnable completion = pendingCompletion;
+        pendingCompletion = null;
+        if (completion != null) {
+            completion.run();
+        }
+    }
+
     /**
-     * Stop and release the MediaPlayer
+     * Stop the backend that is currently playing, if any
      */
-    private void stopMediaPlayer() {
-        if (mediaPlayer != null) {
-            try {
-                if (mediaPlayer.isPlaying()) {
-                    mediaPlayer.stop();
-                }
-                mediaPlayer.release();
-            } catch (Exception e) {
-                Log.e(TAG, "Error stopping MediaPlayer", e);
-            } finally {
-                mediaPlayer = null;
-            }
+    private void stopActiveBackend() {
+        if (activeBackend != null) {
+            activeBackend.stop();
+            activeBackend = null;
         }
     }
 
     /**
-     * Check if the sound system is busy (phone call, etc.)
+     * Check if the sound system is busy (silent/DND mode, phone call) from the cached state
      */
     private boolean isSoundSystemBusy() {
-        if (audioManager == null) {
-            Log.w(TAG, "AudioManager is null, assuming sound system is not busy");
-            return false;
-        }
-        
-        // Check ringer mode first
-        if (audioManager.getRingerMode() != AudioManager.RINGER_MODE_NORMAL) {
-            Log.d(TAG, "Ringer mode is not normal");
+        AudioStateTracker.Snapshot snapshot = audioStateTracker.getSnapshot();
+        if (snapshot.isBusy()) {
+            Log.d(TAG, "Sound system busy: " + snapshot);
             return true;
         }
-        
-        // Check phone state if permission is available
-        if (hasPhoneStatePermission()) {
-            return isPhoneCallActive();
-        }
-        
         return false;
     }
 
     /**
-     * Check if we have permission to read phone state
+     * Get the notification type from the in-memory settings
      */
-    private boolean hasPhoneStatePermission() {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-            return ContextCompat.checkSelfPermission(context, Manifest.permission.READ_PHONE_STATE) 
-                    == PackageManager.PERMISSION_GRANTED;
-        }
-        return true; // Permission not required on older Android versions
+    private static String getTypeOfNotification(Context context) {
+        return ReminderSettingsRepository.getInstance(context).get().getNotificationType();
     }
 
     /**
-     * Check if a phone call is active
+     * Stop the reminder and report it complete, so a playback job in progress finishes and the
+     * wake lock is released; prepared players are kept until the idle period elapses. Worker thread.
      */
-    private boolean isPhoneCallActive() {
-        try {
-            TelephonyManager manager = (TelephonyManager) context.getSystemService(Context.TELEPHONY_SERVICE);
-            int callState = manager.getCallState();
-            
-            boolean isCallActive = callState == TelephonyManager.CALL_STATE_OFFHOOK || 
-                                 callState == TelephonyManager.CALL_STATE_RINGING;
-            
-            if (isCallActive) {
-                Log.d(TAG, "Phone call is active, call state: " + callState);
-            }
-            
-            return isCallActive;
-        } catch (SecurityException e) {
-            Log.w(TAG, "SecurityException when checking phone state", e);
-            return false;
-        }
+    public void stopReminder() {
+        Log.d(TAG, "Stopping reminder");
+        stopActiveBackend();
+        releaseAudioFocus();
+        notifyPlaybackComplete();
     }
 
     /**
-     * Get the notification type from shared preferences
+     * Free every backend's native resources right away. Worker thread.
      */
-    private String getTypeOfNotification() {
-        SharedPreferences sharedPreferences = Utils.getSharedPreferences();
-        return sharedPreferences.getString("TypeOfNotification", DEFAULT_NOTIFICATION_TYPE);
+    public void releaseResources() {
+        Log.d(TAG, "Releasing audio resources");
+        handler.removeCallbacks(idleRelease);
+        stopActiveBackend();
+        for (AudioBackend backend : backends) {
+            backend.release();
+        }
     }
 
     /**
-     * Stop the reminder and clean up resources
+     * (Re)start the idle countdown after which prepared players are released
      */
-    public void stopReminder() {
-        Log.d(TAG, "Stopping reminder");
-        stopMediaPlayer();
-        releaseAudioFocus();
+    private void scheduleIdleRelease() {
+        handler.removeCallbacks(idleRelease);
+        handler.postDelayed(idleRelease, idleReleaseMillis);
     }
 }
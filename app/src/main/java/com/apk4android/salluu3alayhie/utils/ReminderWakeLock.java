@@ -0,0 +1,141 @@
+package com.apk4android.salluu3alayhie.utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.apk4android.salluu3alayhie.common.ReminderWorker;
+
+/**
+ * Partial wake lock that keeps the CPU up from the moment a reminder alarm fires until its
+ * clip has finished, and not longer. It is acquired with a short bound on fire, extended to the
+ * clip duration plus a margin once audio starts, and released on completion, on failure or when
+ * the bound runs out, whichever comes first. Held time is accounted for diagnostics.
+ * Safe to call from any thread.
+ */
+public final class ReminderWakeLock {
+
+    private static final String TAG = "ReminderWakeLock";
+    private static final String LOCK_TAG = "Salluu3alayhie:reminder";
+
+    /**
+     * Bound from the alarm firing until audio starts (arming the next slot, starting the job)
+     */
+    public static final long FIRE_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * Slack after the clip duration before the lock is dropped anyway
+     */
+    public static final long COMPLETION_MARGIN_MILLIS = 2_000;
+
+    // The platform releases by itself a little after our own timeout, should ours never run
+    private static final long PLATFORM_GRACE_MILLIS = 1_000;
+
+    private static ReminderWakeLock instance;
+
+    private final PowerManager.WakeLock wakeLock;
+    private final Handler handler = ReminderWorker.getHandler();
+    private final Runnable timeoutRelease = this::onTimeout;
+
+    private long heldSince;
+    private long totalHeldMillis;
+    private long longestHeldMillis;
+    private int acquireCount;
+    private int timeoutCount;
+
+    public static synchronized ReminderWakeLock getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new ReminderWakeLock(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private ReminderWakeLock(Context context) {
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        this.wakeLock = powerManager.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK, LOCK_TAG);
+        this.wakeLock.setReferenceCounted(false);
+    }
+
+    /**
+     * Hold the CPU for at most timeoutMillis from now; extends (or shortens) the bound if already held
+     */
+    public synchronized void acquire(long timeoutMillis) {
+        handler.removeCallbacks(timeoutRelease);
+        if (heldSince == 0) {
+            heldSince = SystemClock.elapsedRealtime();
+            acquireCount++;
+        }
+        wakeLock.acquire(timeoutMillis + PLATFORM_GRACE_MILLIS);
+        handler.postDelayed(timeoutRelease, timeoutMillis);
+    }
+
+    /**
+     * Keep the CPU up until a clip of the given duration has played out
+     */
+    public void extendForClip(long clipDurationMillis) {
+        acquire(clipDurationMillis + COMPLETION_MARGIN_MILLIS);
+    }
+
+    /**
+     * Let the CPU sleep again; no-op if not held
+     */
+    public synchronized void release() {
+        handler.removeCallbacks(timeoutRelease);
+        if (heldSince == 0) {
+            return;
+        }
+        long heldMillis = SystemClock.elapsedRealtime() - heldSince;
+        heldSince = 0;
+        totalHeldMillis += heldMillis;
+        longestHeldMillis = Math.max(longestHeldMillis, heldMillis);
+        if (wakeLock.isHeld()) {
+            wakeLock.release();
+        }
+        Log.d(TAG, "Released after " + heldMillis + "ms (" + this + ")");
+    }
+
+    private synchronized void onTimeout() {
+        if (heldSince != 0) {
+            timeoutCount++;
+            Log.w(TAG, "Reminder did not complete in time, releasing wake lock");
+            release();
+        }
+    }
+
+    public synchronized boolean isHeld() {
+        return heldSince != 0;
+    }
+
+    /**
+     * Total time held in this process, including the current hold
+     */
+    public synchronized long getTotalHeldMillis() {
+        return totalHeldMillis + (heldSince != 0 ? SystemClock.elapsedRealtime() - heldSince : 0);
+    }
+
+    public synchronized long getLongestHeldMillis() {
+        return longestHeldMillis;
+    }
+
+    public synchronized int getAcquireCount() {
+        return acquireCount;
+    }
+
+    /**
+     * Holds that ended by timeout rather than by completion or failure
+     */
+    public synchronized int getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        return "acquired=" + acquireCount + ", timeouts=" + timeoutCount
+                + ", total=" + totalHeldMillis + "ms, longest=" + longestHeldMillis + "ms";
+    }
+}
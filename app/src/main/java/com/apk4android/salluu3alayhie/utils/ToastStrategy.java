@@ -0,0 +1,130 @@
+package com.apk4android.salluu3alayhie.utils;
+
+import android.app.AppOpsManager;
+import android.content.Context;
+import android.os.Build;
+import android.provider.Settings;
+import android.util.Log;
+import android.view.Gravity;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+
+/**
+ * How a top-middle reminder message can be shown on this device.
+ * The working strategy is probed once per process and cached; the cache is dropped when the
+ * "display over other apps" permission changes, so every reminder goes straight to the
+ * known-good path instead of trying each one and catching exceptions.
+ */
+public enum ToastStrategy {
+
+    /**
+     * Shared floating view above other apps, needs SYSTEM_ALERT_WINDOW
+     */
+    OVERLAY {
+        @Override
+        boolean show(Context context, String message, int duration) {
+            return ReminderOverlay.getInstance(context).showOverlay(message,
+                    duration == Toast.LENGTH_LONG ? 5000 : 3000);
+        }
+    },
+
+    /**
+     * Regular toast moved to the top; gravity is honoured for text toasts before Android 11
+     */
+    POSITIONED_TOAST {
+        @Override
+        boolean show(Context context, String message, int duration) {
+            Toast toast = Toast.makeText(context.getApplicationContext(), message, duration);
+            toast.setGravity(Gravity.TOP | Gravity.CENTER_HORIZONTAL, 0, 100);
+            toast.show();
+            return true;
+        }
+    },
+
+    /**
+     * Plain toast at the system's default position
+     */
+    PLAIN_TOAST {
+        @Override
+        boolean show(Context context, String message, int duration) {
+            Toast.makeText(context.getApplicationContext(), message, duration).show();
+            return true;
+        }
+    };
+
+    private static final String TAG = "ToastStrategy";
+
+    private static volatile ToastStrategy cached;
+    private static boolean watchingOverlayPermission;
+
+    /**
+     * Show the message; false if the strategy turned out not to work
+     */
+    abstract boolean show(Context context, String message, int duration);
+
+    /**
+     * Cached strategy for this process, probed on first use
+     */
+    @NonNull
+    public static ToastStrategy get(@NonNull Context context) {
+        ToastStrategy strategy = cached;
+        if (strategy == null) {
+            strategy = probe(context);
+            cached = strategy;
+            watchOverlayPermission(context);
+        }
+        return strategy;
+    }
+
+    /**
+     * Forget the cached strategy, e.g. after returning from the overlay permission screen
+     */
+    public static void invalidate() {
+        cached = null;
+    }
+
+    /**
+     * Show the message with the cached strategy, re-probing once if it stopped working
+     */
+    public static void showMessage(@NonNull Context context, @NonNull String message, int duration) {
+        ToastStrategy strategy = get(context);
+        if (strategy.show(context, message, duration)) {
+            return;
+        }
+        Log.w(TAG, strategy + " failed, falling back");
+        cached = strategy == OVERLAY ? fallbackToast() : PLAIN_TOAST;
+        cached.show(context, message, duration);
+    }
+
+    private static ToastStrategy probe(Context context) {
+        ToastStrategy strategy;
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M || Settings.canDrawOverlays(context)) {
+            strategy = OVERLAY;
+        } else {
+            strategy = fallbackToast();
+        }
+        Log.d(TAG, "Toast strategy: " + strategy);
+        return strategy;
+    }
+
+    private static ToastStrategy fallbackToast() {
+        return Build.VERSION.SDK_INT < Build.VERSION_CODES.R ? POSITIONED_TOAST : PLAIN_TOAST;
+    }
+
+    /**
+     * Drop the cache whenever the overlay permission is granted or revoked
+     */
+    private static synchronized void watchOverlayPermission(Context context) {
+        if (watchingOverlayPermission || Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return;
+        }
+        AppOpsManager appOpsManager = (AppOpsManager) context.getSystemService(Context.APP_OPS_SERVICE);
+        if (appOpsManager == null) {
+            return;
+        }
+        appOpsManager.startWatchingMode(AppOpsManager.OPSTR_SYSTEM_ALERT_WINDOW, context.getPackageName(),
+                (op, packageName) -> invalidate());
+        watchingOverlayPermission = true;
+    }
+}
@@ -0,0 +1,83 @@
+package com.apk4android.salluu3alayhie.history;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local unit tests for {@link ReminderHistoryLog}, on a temporary file.
+ */
+public class ReminderHistoryLogTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("history", ".bin");
+        file.delete();
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    private static List<long[]> readAll(ReminderHistoryLog log) {
+        List<long[]> records = new ArrayList<>();
+        log.forEach((scheduled, actual, outcome, latency) ->
+                records.add(new long[]{scheduled, actual, outcome, latency}));
+        return records;
+    }
+
+    @Test
+    public void append_recordsAreReadBackInOrder() throws IOException {
+        try (ReminderHistoryLog log = ReminderHistoryLog.open(file, 8)) {
+            log.append(1000L, 1200L, ReminderHistoryLog.OUTCOME_PLAYED, 150);
+            log.append(2000L, 2050L, ReminderHistoryLog.OUTCOME_VISUAL, ReminderHistoryLog.NO_LATENCY);
+
+            List<long[]> records = readAll(log);
+            assertEquals(2, records.size());
+            assertEquals(1000L, records.get(0)[0]);
+            assertEquals(1200L, records.get(0)[1]);
+            assertEquals(ReminderHistoryLog.OUTCOME_PLAYED, records.get(0)[2]);
+            assertEquals(150, records.get(0)[3]);
+            assertEquals(ReminderHistoryLog.OUTCOME_VISUAL, records.get(1)[2]);
+            assertEquals(ReminderHistoryLog.NO_LATENCY, records.get(1)[3]);
+        }
+    }
+
+    @Test
+    public void append_beyondCapacityKeepsNewestRecords() throws IOException {
+        try (ReminderHistoryLog log = ReminderHistoryLog.open(file, 3)) {
+            for (int i = 1; i <= 5; i++) {
+                log.append(i * 1000L, i * 1000L, ReminderHistoryLog.OUTCOME_PLAYED, i);
+            }
+
+            assertEquals(3, log.size());
+            assertEquals(5, log.getWriteCount());
+            List<long[]> records = readAll(log);
+            assertEquals(3000L, records.get(0)[0]);
+            assertEquals(5000L, records.get(2)[0]);
+        }
+    }
+
+    @Test
+    public void open_existingLogKeepsRecordsAndCapacity() throws IOException {
+        try (ReminderHistoryLog log = ReminderHistoryLog.open(file, 4)) {
+            log.append(1000L, 1100L, ReminderHistoryLog.OUTCOME_SKIPPED_CALL, ReminderHistoryLog.NO_LATENCY);
+        }
+
+        try (ReminderHistoryLog log = ReminderHistoryLog.open(file, 100)) {
+            assertEquals(4, log.getCapacity());
+            assertEquals(1, log.size());
+            assertEquals(ReminderHistoryLog.OUTCOME_SKIPPED_CALL, readAll(log).get(0)[2]);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.apk4android.salluu3alayhie.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Local unit tests for {@link DeliveryPolicy} window computation.
+ */
+public class DeliveryPolicyTest {
+
+    private static final long MIN1 = 60 * 1000L;
+
+    @Test
+    public void windowed_isCenteredOnSlot() {
+        DeliveryPolicy policy = DeliveryPolicy.windowed(30_000L);
+        long slot = 10 * MIN1;
+
+        assertEquals(slot - 30_000L, policy.windowStart(slot, 5 * MIN1, 0L));
+        assertEquals(60_000L, policy.windowLength(slot, 5 * MIN1, 0L));
+    }
+
+    @Test
+    public void windowed_neverStartsInThePast() {
+        DeliveryPolicy policy = DeliveryPolicy.windowed(2 * MIN1);
+        long slot = 30 * MIN1;
+        long now = slot - MIN1;
+
+        assertEquals(now, policy.windowStart(slot, 30 * MIN1, now));
+        assertEquals(slot + 2 * MIN1, now + policy.windowLength(slot, 30 * MIN1, now));
+    }
+
+    @Test
+    public void windowed_toleranceIsCappedByInterval() {
+        DeliveryPolicy policy = DeliveryPolicy.windowed(2 * MIN1);
+        long interval = MIN1;
+        long slot = 10 * MIN1;
+
+        assertEquals(slot - interval / 4, policy.windowStart(slot, interval, 0L));
+        assertTrue(policy.windowLength(slot, interval, 0L) < interval);
+    }
+
+    @Test
+    public void windowed_withoutToleranceIsExact() {
+        assertSame(DeliveryPolicy.EXACT, DeliveryPolicy.windowed(0));
+        assertTrue(DeliveryPolicy.EXACT.isExact());
+    }
+}
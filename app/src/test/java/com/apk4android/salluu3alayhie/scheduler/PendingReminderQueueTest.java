@@ -0,0 +1,56 @@
+package com.apk4android.salluu3alayhie.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Local unit tests for {@link PendingReminderQueue}.
+ */
+public class PendingReminderQueueTest {
+
+    private static final long MIN1 = 60 * 1000L;
+
+    @Test
+    public void drain_emptyQueueReturnsNull() {
+        assertNull(new PendingReminderQueue().drain());
+    }
+
+    @Test
+    public void drain_coalescesMissedSlotsIntoOneReplay() {
+        PendingReminderQueue queue = new PendingReminderQueue();
+        queue.offer(5 * MIN1);
+        queue.offer(10 * MIN1);
+        queue.offer(15 * MIN1);
+
+        PendingReminderQueue.Replay replay = queue.drain();
+
+        assertEquals(3, replay.getMissedCount());
+        assertEquals(5 * MIN1, replay.getOldestSlotMillis());
+        assertEquals(15 * MIN1, replay.getNewestSlotMillis());
+        assertTrue(queue.isEmpty());
+        assertNull(queue.drain());
+    }
+
+    @Test
+    public void offer_beyondCapacityDropsOldestButKeepsCount() {
+        PendingReminderQueue queue = new PendingReminderQueue(3);
+        for (int i = 1; i <= 5; i++) {
+            queue.offer(i * MIN1);
+        }
+
+        assertEquals(5, queue.pendingCount());
+        PendingReminderQueue.Replay replay = queue.drain();
+        assertEquals(5, replay.getMissedCount());
+        assertEquals(3 * MIN1, replay.getOldestSlotMillis());
+        assertEquals(5 * MIN1, replay.getNewestSlotMillis());
+        assertEquals(0, queue.pendingCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsNonPositiveCapacity() {
+        new PendingReminderQueue(0);
+    }
+}
@@ -0,0 +1,107 @@
+package com.apk4android.salluu3alayhie.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Local unit tests for {@link ProfileScheduler}.
+ */
+public class ProfileSchedulerTest {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final long MIN1 = 60 * 1000L;
+    private static final long HOUR = 60 * MIN1;
+
+    private static final ReminderProfile HOURLY_AYA = new ReminderProfile("hourlyAya", "Aya", HOUR,
+            0L, ReminderProfile.ALL_DAYS);
+    private static final ReminderProfile VOICE_10_MIN = new ReminderProfile("main", "Voice", 10 * MIN1,
+            0L, ReminderProfile.ALL_DAYS);
+
+    @Test
+    public void peekNextFireTime_isEarliestProfileSlot() {
+        ProfileScheduler scheduler = new ProfileScheduler(Arrays.asList(HOURLY_AYA, VOICE_10_MIN), UTC)
+                .start(5 * MIN1);
+
+        assertEquals(10 * MIN1, scheduler.peekNextFireTime());
+        assertEquals(VOICE_10_MIN, scheduler.peekNextProfile());
+    }
+
+    @Test
+    public void pollDue_coincidingSlotsFireInOneWakeupInPriorityOrder() {
+        ProfileScheduler scheduler = new ProfileScheduler(Arrays.asList(HOURLY_AYA, VOICE_10_MIN), UTC)
+                .start(HOUR - 1);
+
+        List<ReminderProfile> due = scheduler.pollDue(HOUR);
+
+        assertEquals(Arrays.asList(HOURLY_AYA, VOICE_10_MIN), due);
+        assertEquals(HOUR + 10 * MIN1, scheduler.peekNextFireTime());
+    }
+
+    @Test
+    public void pollDue_takesProfilesWithinTheDeliveryWindow() {
+        ReminderProfile offset = new ReminderProfile("offset", "Aya", HOUR, MIN1, ReminderProfile.ALL_DAYS);
+        ProfileScheduler scheduler = new ProfileScheduler(Arrays.asList(offset, VOICE_10_MIN), UTC)
+                .start(HOUR - 1);
+
+        assertEquals(Arrays.asList(VOICE_10_MIN), scheduler.pollDue(HOUR));
+        assertEquals(Arrays.asList(offset), new ProfileScheduler(Arrays.asList(offset, VOICE_10_MIN), UTC)
+                .start(HOUR + 1).pollDue(HOUR + 2 * MIN1));
+        assertEquals(Arrays.asList(offset, VOICE_10_MIN), new ProfileScheduler(Arrays.asList(offset, VOICE_10_MIN), UTC)
+                .start(HOUR - 1).pollDue(HOUR + 2 * MIN1));
+    }
+
+    @Test
+    public void pollDue_lateDeliveryFiresOnceAndSkipsMissedSlots() {
+        ProfileScheduler scheduler = new ProfileScheduler(Arrays.asList(HOURLY_AYA, VOICE_10_MIN), UTC)
+                .start(10 * MIN1 - 1);
+
+        // Slot at 10 min delivered at 2h05 after Doze
+        List<ReminderProfile> due = scheduler.pollDue(2 * HOUR + 5 * MIN1);
+
+        assertEquals(Arrays.asList(HOURLY_AYA, VOICE_10_MIN), due);
+        assertEquals(2 * HOUR + 10 * MIN1, scheduler.peekNextFireTime());
+    }
+
+    @Test
+    public void pollDue_toleranceIsCappedPerProfileInterval() {
+        // Testing mode: 30 second slots under the 2 minute window policy
+        ReminderProfile fast = new ReminderProfile("fast", "Voice", 30_000L, 0L, ReminderProfile.ALL_DAYS);
+        ProfileScheduler scheduler = new ProfileScheduler(Arrays.asList(HOURLY_AYA, fast), UTC)
+                .start(HOUR - 1);
+        DeliveryPolicy policy = DeliveryPolicy.windowed(2 * MIN1);
+
+        // Only a 7.5 second window applies to the 30 second profile, so its next slots stay pending
+        assertEquals(Arrays.asList(HOURLY_AYA, fast), scheduler.pollDue(HOUR, policy));
+        assertEquals(HOUR + 30_000L, scheduler.peekNextFireTime());
+        assertEquals(Arrays.asList(fast), scheduler.pollDue(HOUR + 30_000L, policy));
+        assertEquals(HOUR + 60_000L, scheduler.peekNextFireTime());
+    }
+
+    @Test
+    public void pollDue_nothingDueLeavesQueueUntouched() {
+        ProfileScheduler scheduler = new ProfileScheduler(Arrays.asList(HOURLY_AYA), UTC).start(0L);
+
+        assertTrue(scheduler.pollDue(HOUR - 1).isEmpty());
+        assertEquals(HOUR, scheduler.peekNextFireTime());
+    }
+
+    @Test
+    public void startFromNow_reseedsFromTheInjectedClock() {
+        long[] now = {25 * MIN1};
+        ProfileScheduler scheduler = new ProfileScheduler(Arrays.asList(HOURLY_AYA, VOICE_10_MIN), UTC, () -> now[0]);
+
+        assertEquals(30 * MIN1, scheduler.startFromNow().peekNextFireTime());
+        scheduler.pollDue(30 * MIN1);
+
+        // A later wakeup reuses the same scheduler and starts over from the clock
+        now[0] = 2 * HOUR + MIN1;
+        assertEquals(2 * HOUR + 10 * MIN1, scheduler.startFromNow().peekNextFireTime());
+        assertEquals(VOICE_10_MIN, scheduler.peekNextProfile());
+    }
+}
@@ -0,0 +1,57 @@
+package com.apk4android.salluu3alayhie.scheduler;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Local unit tests for {@link ReminderProfile}.
+ */
+public class ReminderProfileTest {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final long MIN1 = 60 * 1000L;
+    private static final long HOUR = 60 * MIN1;
+    private static final long DAY = 24 * HOUR;
+    // 1970-01-01 was a Thursday
+    private static final long FRIDAY_START = DAY;
+
+    @Test
+    public void nextFireAfter_followsExplicitAnchor() {
+        ReminderProfile profile = new ReminderProfile("p", "Voice", 10 * MIN1, 3 * MIN1, ReminderProfile.ALL_DAYS);
+
+        assertEquals(13 * MIN1, profile.nextFireAfter(5 * MIN1, UTC));
+        assertEquals(23 * MIN1, profile.nextFireAfter(13 * MIN1, UTC));
+    }
+
+    @Test
+    public void nextFireAfter_localMidnightAnchorLandsOnRoundHours() {
+        ReminderProfile profile = new ReminderProfile("p", "Aya", HOUR,
+                ReminderProfile.ANCHOR_LOCAL_MIDNIGHT, ReminderProfile.ALL_DAYS);
+
+        assertEquals(5 * DAY + 8 * HOUR, profile.nextFireAfter(5 * DAY + 7 * HOUR + 20 * MIN1, UTC));
+    }
+
+    @Test
+    public void nextFireAfter_skipsToTheNextAllowedDay() {
+        ReminderProfile friday = new ReminderProfile("friday", "Aya", 30 * MIN1,
+                ReminderProfile.ANCHOR_LOCAL_MIDNIGHT, ReminderProfile.dayBit(Calendar.FRIDAY));
+
+        // Thursday noon: first Friday slot is its midnight
+        assertEquals(FRIDAY_START, friday.nextFireAfter(12 * HOUR, UTC));
+        assertEquals(FRIDAY_START + 30 * MIN1, friday.nextFireAfter(FRIDAY_START, UTC));
+        // Last Friday slot: the next one is a week later
+        long lastFridaySlot = FRIDAY_START + DAY - 30 * MIN1;
+        assertEquals(FRIDAY_START + 7 * DAY, friday.nextFireAfter(lastFridaySlot, UTC));
+    }
+
+    @Test
+    public void nextFireAfter_withoutDaysNeverFires() {
+        ReminderProfile profile = new ReminderProfile("p", "Voice", HOUR, 0L, 0);
+
+        assertEquals(Long.MAX_VALUE, profile.nextFireAfter(0L, UTC));
+    }
+}
@@ -0,0 +1,100 @@
+package com.apk4android.salluu3alayhie.scheduler;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.TimeZone;
+
+/**
+ * Local unit tests for {@link ReminderScheduler} slot arithmetic.
+ */
+public class ReminderSchedulerTest {
+
+    private static final long MIN1 = 60 * 1000L;
+
+    @Test
+    public void slotAfter_isFirstSlotAfterAnchor() {
+        ReminderScheduler scheduler = new ReminderScheduler(1_000_000L, 5 * MIN1);
+
+        assertEquals(1_000_000L + 5 * MIN1, scheduler.slotAfter(1_000_000L));
+    }
+
+    @Test
+    public void slotAfter_ignoresPlaybackDuration() {
+        ReminderScheduler scheduler = new ReminderScheduler(0L, 10 * MIN1);
+
+        // Slot fired at 10 min, playback and decode took 7 seconds
+        assertEquals(20 * MIN1, scheduler.slotAfter(10 * MIN1 + 7000));
+    }
+
+    @Test
+    public void slotAfter_skipsSlotsMissedDuringDoze() {
+        ReminderScheduler scheduler = new ReminderScheduler(0L, 5 * MIN1);
+
+        // Alarm for the 5 min slot delivered 17 minutes late
+        assertEquals(25 * MIN1, scheduler.slotAfter(22 * MIN1));
+    }
+
+    @Test
+    public void slotAfter_earlyWindowedFireTargetsFollowingSlot() {
+        ReminderScheduler scheduler = new ReminderScheduler(0L, 5 * MIN1);
+
+        // Windowed alarm for the 10 min slot delivered 40 seconds early: schedule from the slot itself
+        long now = 10 * MIN1 - 40_000L;
+        assertEquals(15 * MIN1, scheduler.slotAfter(Math.max(now, 10 * MIN1)));
+    }
+
+    @Test
+    public void slotAfter_beforeAnchorReturnsAnchor() {
+        ReminderScheduler scheduler = new ReminderScheduler(30 * MIN1, 5 * MIN1);
+
+        assertEquals(30 * MIN1, scheduler.slotAfter(0L));
+    }
+
+    @Test
+    public void staticSlotAfter_matchesInstance() {
+        ReminderScheduler scheduler = new ReminderScheduler(3 * MIN1, 7 * MIN1);
+
+        for (long t = 0; t < 60 * MIN1; t += 13_000L) {
+            assertEquals(scheduler.slotAfter(t), ReminderScheduler.slotAfter(3 * MIN1, 7 * MIN1, t));
+        }
+    }
+
+    @Test
+    public void simulatedWeek_hasNoDrift() {
+        ReminderScheduler scheduler = new ReminderScheduler(0L, 5 * MIN1);
+        long weekEnd = 7L * 24 * 60 * MIN1;
+
+        int fires = 0;
+        long trigger = scheduler.slotAfter(0L);
+        while (trigger <= weekEnd) {
+            fires++;
+            // Each reminder takes a few seconds to play before the next alarm is computed
+            trigger = scheduler.slotAfter(trigger + 4000);
+        }
+
+        assertEquals(7 * 288, fires);
+        assertEquals(weekEnd + 5 * MIN1, trigger);
+    }
+
+    @Test
+    public void wallClockAnchor_isLocalMidnight() {
+        TimeZone riyadh = TimeZone.getTimeZone("GMT+03:00");
+        // 2024-01-01T10:07:00+03:00
+        long now = 1704092820000L;
+
+        long anchor = ReminderScheduler.wallClockAnchor(now, riyadh);
+
+        // 2024-01-01T00:00:00+03:00
+        assertEquals(1704056400000L, anchor);
+        ReminderScheduler scheduler = new ReminderScheduler(anchor, 15 * MIN1);
+        // 10:15 local
+        assertEquals(anchor + 41 * 15 * MIN1, scheduler.slotAfter(now));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsNonPositiveInterval() {
+        new ReminderScheduler(0L, 0);
+    }
+}
@@ -0,0 +1,91 @@
+package com.apk4android.salluu3alayhie.settings;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.apk4android.salluu3alayhie.scheduler.DeliveryPolicy;
+import com.apk4android.salluu3alayhie.scheduler.ReminderProfile;
+
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Local unit tests for {@link ReminderSettings} snapshots and editors.
+ */
+public class ReminderSettingsTest {
+
+    @Test
+    public void editor_changesOnlyTheFieldsThatWereSet() {
+        ReminderSettings base = new ReminderSettings.Editor()
+                .setRepeatEveryMillis(300000)
+                .setNotificationType(ReminderSettings.NOTIFICATION_TYPE_AYA)
+                .applyTo(ReminderSettings.DEFAULTS);
+
+        ReminderSettings updated = new ReminderSettings.Editor()
+                .setTimerActive(true)
+                .setAnchorTimeMillis(1234L)
+                .applyTo(base);
+
+        assertEquals(300000, updated.getRepeatEveryMillis());
+        assertTrue(updated.isAyaReminder());
+        assertTrue(updated.isTimerActive());
+        assertEquals(1234L, updated.getAnchorTimeMillis());
+        // The base snapshot is never mutated
+        assertFalse(base.isTimerActive());
+    }
+
+    @Test
+    public void editor_withoutChangesKeepsEveryField() {
+        ReminderSettings copy = new ReminderSettings.Editor().applyTo(ReminderSettings.DEFAULTS);
+
+        assertEquals(ReminderSettings.DEFAULTS.getRepeatEveryMillis(), copy.getRepeatEveryMillis());
+        assertEquals(ReminderSettings.NOTIFICATION_TYPE_VOICE, copy.getNotificationType());
+        assertSame(DeliveryPolicy.EXACT, copy.getDeliveryPolicy());
+        assertFalse(copy.isNotificationVisualReminder());
+    }
+
+    @Test
+    public void getProfiles_putsEnabledExtraProfilesBeforeTheMainReminder() {
+        ReminderSettings settings = new ReminderSettings.Editor()
+                .setRepeatEveryMillis(600000)
+                .setAnchorTimeMillis(1234L)
+                .setExtraProfiles(ReminderSettings.EXTRA_PROFILE_HOURLY_AYA | ReminderSettings.EXTRA_PROFILE_FRIDAY)
+                .applyTo(ReminderSettings.DEFAULTS);
+
+        List<ReminderProfile> profiles = settings.getProfiles();
+        assertEquals(3, profiles.size());
+        assertEquals(ReminderSettings.PROFILE_FRIDAY, profiles.get(0).getId());
+        assertEquals(ReminderSettings.PROFILE_HOURLY_AYA, profiles.get(1).getId());
+        assertEquals(ReminderSettings.PROFILE_MAIN, profiles.get(2).getId());
+        assertEquals(600000, profiles.get(2).getIntervalMillis());
+
+        assertEquals(1, ReminderSettings.DEFAULTS.getProfiles().size());
+    }
+
+    @Test
+    public void editor_setsAndClearsTheDeferredReminder() {
+        ReminderSettings deferred = new ReminderSettings.Editor()
+                .setDeferredReminder(5000L, ReminderSettings.NOTIFICATION_TYPE_AYA)
+                .applyTo(ReminderSettings.DEFAULTS);
+        assertTrue(deferred.hasDeferredReminder());
+        assertEquals(5000L, deferred.getDeferredSlotMillis());
+        assertEquals(ReminderSettings.NOTIFICATION_TYPE_AYA, deferred.getDeferredNotificationType());
+
+        // Untouched by edits of other fields
+        ReminderSettings edited = new ReminderSettings.Editor().setTimerActive(true).applyTo(deferred);
+        assertEquals(5000L, edited.getDeferredSlotMillis());
+
+        ReminderSettings cleared = new ReminderSettings.Editor().clearDeferredReminder().applyTo(edited);
+        assertFalse(cleared.hasDeferredReminder());
+        assertNull(cleared.getDeferredNotificationType());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void editor_rejectsNonPositiveInterval() {
+        new ReminderSettings.Editor().setRepeatEveryMillis(0);
+    }
+}
@@ -0,0 +1,109 @@
+package com.apk4android.salluu3alayhie.stats;
+
+import static org.junit.Assert.assertEquals;
+
+import com.apk4android.salluu3alayhie.history.ReminderHistoryLog;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Local unit tests for {@link DailyReminderStats}, on a temporary file.
+ */
+public class DailyReminderStatsTest {
+
+    private static final int TODAY = 20_000;
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("stats", ".bin");
+        file.delete();
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void summarize_countsOutcomesOnlyWithinRange() throws IOException {
+        try (DailyReminderStats stats = DailyReminderStats.open(file)) {
+            stats.record(TODAY, ReminderHistoryLog.OUTCOME_PLAYED, 500);
+            stats.record(TODAY, ReminderHistoryLog.OUTCOME_VISUAL, 500);
+            stats.record(TODAY - 3, ReminderHistoryLog.OUTCOME_SKIPPED_CALL, 500);
+            stats.record(TODAY - 3, ReminderHistoryLog.OUTCOME_FAILED, 500);
+            stats.record(TODAY - 10, ReminderHistoryLog.OUTCOME_PLAYED, 500);
+            stats.record(TODAY, ReminderHistoryLog.OUTCOME_REPLAYED, 500);
+
+            DailyReminderStats.Summary week = stats.summarize(TODAY, 7);
+            assertEquals(1, week.getPlayed());
+            assertEquals(1, week.getSilent());
+            assertEquals(2, week.getSkipped());
+            assertEquals(4, week.getTotal());
+            assertEquals(2, week.getActiveDays());
+
+            assertEquals(5, stats.summarize(TODAY, 30).getTotal());
+        }
+    }
+
+    @Test
+    public void summarize_medianIsUpperBoundOfMiddleBucket() throws IOException {
+        try (DailyReminderStats stats = DailyReminderStats.open(file)) {
+            assertEquals(DailyReminderStats.Summary.NO_MEDIAN, stats.summarize(TODAY, 7).getMedianLatenessMillis());
+
+            stats.record(TODAY, ReminderHistoryLog.OUTCOME_PLAYED, 200);
+            stats.record(TODAY, ReminderHistoryLog.OUTCOME_PLAYED, 7_000);
+            stats.record(TODAY, ReminderHistoryLog.OUTCOME_PLAYED, 8_000);
+            stats.record(TODAY, ReminderHistoryLog.OUTCOME_PLAYED, 4 * 60_000);
+
+            assertEquals(10_000, stats.summarize(TODAY, 7).getMedianLatenessMillis());
+        }
+    }
+
+    @Test
+    public void record_withoutLatenessCountsButSkipsHistogram() throws IOException {
+        try (DailyReminderStats stats = DailyReminderStats.open(file)) {
+            stats.record(TODAY, ReminderHistoryLog.OUTCOME_PLAYED, DailyReminderStats.NO_LATENESS);
+
+            DailyReminderStats.Summary today = stats.summarize(TODAY, 1);
+            assertEquals(1, today.getPlayed());
+            assertEquals(DailyReminderStats.Summary.NO_MEDIAN, today.getMedianLatenessMillis());
+        }
+    }
+
+    @Test
+    public void record_reusedRowDropsTheOldDay() throws IOException {
+        try (DailyReminderStats stats = DailyReminderStats.open(file)) {
+            stats.record(TODAY - DailyReminderStats.DAYS, ReminderHistoryLog.OUTCOME_PLAYED, 0);
+            stats.record(TODAY, ReminderHistoryLog.OUTCOME_VISUAL, 0);
+
+            DailyReminderStats.Summary today = stats.summarize(TODAY, 1);
+            assertEquals(0, today.getPlayed());
+            assertEquals(1, today.getSilent());
+        }
+    }
+
+    @Test
+    public void open_existingTableKeepsCounts() throws IOException {
+        try (DailyReminderStats stats = DailyReminderStats.open(file)) {
+            stats.record(TODAY, ReminderHistoryLog.OUTCOME_PLAYED, 0);
+        }
+        try (DailyReminderStats stats = DailyReminderStats.open(file)) {
+            assertEquals(1, stats.summarize(TODAY, 365).getPlayed());
+        }
+    }
+
+    @Test
+    public void epochDay_usesLocalOffsetAndFloorsNegativeTimes() {
+        long dayMillis = 24L * 60 * 60 * 1000;
+        assertEquals(1, DailyReminderStats.epochDay(dayMillis - 1000, 2000));
+        assertEquals(0, DailyReminderStats.epochDay(dayMillis - 1000, 0));
+        assertEquals(-1, DailyReminderStats.epochDay(-1, 0));
+    }
+}